@@ -5,14 +5,13 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.random.RandomGenerator;
 import java.util.random.RandomGeneratorFactory;
+import java.util.stream.IntStream;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -26,6 +25,7 @@ import net.syntactickitsune.furblorb.finmer.Furball;
 import net.syntactickitsune.furblorb.finmer.FurballDependency;
 import net.syntactickitsune.furblorb.finmer.FurballUtil;
 import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
+import net.syntactickitsune.furblorb.finmer.io.EncodedAsset;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectReader.ReadOnlyExternalFileHandler;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectWriter;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectWriter.WriteOnlyExternalFileHandler;
@@ -46,6 +46,15 @@ final class FurballSteps {
 		}
 	}
 
+	static final record AdjustCompressionLevel(int level) implements Step {
+		@Override
+		public void run(WorkingData data) throws Exception {
+			if (level < 0 || level > 9)
+				throw new CliException("compression level must be between 0 and 9, not " + level);
+			data.compressionLevel = level;
+		}
+	}
+
 	static final record ChangeTitle(String value) implements Step {
 		@Override
 		public void run(WorkingData data) throws Exception {
@@ -107,8 +116,9 @@ final class FurballSteps {
 		@Override
 		public void run(WorkingData data) throws Exception {
 			final Furball furball = data.furball("no furball loaded to extract an asset from");
-			for (FurballAsset asset : furball.assets)
-				if ((filename != null && asset.filename.equals(filename)) || (id != null && asset.id.equals(id))) {
+			for (int i = 0; i < furball.assets.size(); i++)
+				if ((filename != null && furball.assets.filename(i).equals(filename)) || (id != null && furball.assets.id(i).equals(id))) {
+					final FurballAsset asset = furball.assets.get(i);
 					System.out.printf("! Extracting asset %s (%s) to %s.\n", asset.filename, asset.id, dest.toAbsolutePath());
 					{
 						final JsonCodec codec = new JsonCodec(new WriteOnlyExternalFileHandler(dest.getParent(), dest), data.formatVersion());
@@ -125,11 +135,12 @@ final class FurballSteps {
 		@Override
 		public void run(WorkingData data) throws Exception {
 			final Furball furball = data.furball("no furball loaded to drop an asset from");
-			for (Iterator<FurballAsset> it = furball.assets.iterator(); it.hasNext(); ) {
-				final FurballAsset asset = it.next();
-				if ((filename != null && asset.filename.equals(filename)) || (id != null && asset.id.equals(id))) {
-					System.out.printf("! Dropped asset %s (%s).\n", asset.filename, asset.id);
-					it.remove();
+			for (int i = furball.assets.size() - 1; i >= 0; i--) {
+				final String assetName = furball.assets.filename(i);
+				final UUID assetId = furball.assets.id(i);
+				if ((filename != null && assetName.equals(filename)) || (id != null && assetId.equals(id))) {
+					System.out.printf("! Dropped asset %s (%s).\n", assetName, assetId);
+					furball.assets.discard(i);
 				}
 			}
 		}
@@ -162,17 +173,26 @@ final class FurballSteps {
 					mergedDeps++;
 				}
 
+			// Assets are moved over as-is, so that lazily-read ones needn't be decoded.
 			parent:
-			for (FurballAsset ours : merging.assets) {
-				for (ListIterator<FurballAsset> it = furball.assets.listIterator(); it.hasNext(); ) {
-					final FurballAsset theirs = it.next();
-					if (ours.id.equals(theirs.id)) {
-						it.set(ours);
+			for (int i = 0; i < merging.assets.size(); i++) {
+				final EncodedAsset encoded = merging.assets.encoded(i);
+				for (int j = 0; j < furball.assets.size(); j++)
+					if (merging.assets.id(i).equals(furball.assets.id(j))) {
+						if (encoded != null)
+							furball.assets.setEncoded(j, encoded);
+						else {
+							// (Not set(), since that would decode the asset being replaced just to return it.)
+							furball.assets.discard(j);
+							furball.assets.add(j, merging.assets.get(i));
+						}
 						continue parent;
 					}
-				}
 
-				furball.assets.add(ours);
+				if (encoded != null)
+					furball.assets.addEncoded(encoded);
+				else
+					furball.assets.add(merging.assets.get(i));
 			}
 
 			System.out.printf("! Merged %d dependenc%s and %d asset%s from %s (%s) into %s (%s).\n",
@@ -235,8 +255,9 @@ final class FurballSteps {
 				}
 
 				final List<?> assets = assetCache.computeIfAbsent(shuffler.assetType(),
-						k -> furball.assets.stream()
-								.filter(asset -> k.isAssignableFrom(asset.getClass()))
+						k -> IntStream.range(0, furball.assets.size())
+								.filter(i -> k.isAssignableFrom(furball.assets.type(i)))
+								.mapToObj(furball.assets::get)
 								.toList());
 
 				System.out.println("! Shuffling " + assets.size() + " assets using shuffler " + key + ".");
@@ -244,6 +265,11 @@ final class FurballSteps {
 				shuffler.shuffle(assets, random, furball);
 			}
 
+			// Shufflers may modify any asset they can get their paws on, which is every asset that has been decoded.
+			for (int i = 0; i < furball.assets.size(); i++)
+				if (furball.assets.isMaterialized(i))
+					furball.assets.get(i).markDirty();
+
 			System.out.println("! Shuffling completed.");
 		}
 	}
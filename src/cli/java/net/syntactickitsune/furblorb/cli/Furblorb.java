@@ -84,6 +84,14 @@ public final class Furblorb {
 						skip = 1;
 					}
 				}
+				case "--build-cache" -> {
+					if (i + 1 == args.length)
+						System.out.println("--build-cache: expected a file argument.");
+					else {
+						steps.add(new GeneralSteps.UseBuildCache(Paths.get(args[i + 1])));
+						skip = 1;
+					}
+				}
 				case "--format-version" -> {
 					if (i + 1 == args.length)
 						System.out.println("--format-version: expected a version argument.");
@@ -92,6 +100,14 @@ public final class Furblorb {
 						skip = 1;
 					}
 				}
+				case "--compression-level" -> {
+					if (i + 1 == args.length)
+						System.out.println("--compression-level: expected a level argument.");
+					else {
+						steps.add(new FurballSteps.AdjustCompressionLevel(Integer.parseInt(args[i + 1])));
+						skip = 1;
+					}
+				}
 
 				case "--show" -> {
 					steps.add(new GeneralSteps.Show(false));
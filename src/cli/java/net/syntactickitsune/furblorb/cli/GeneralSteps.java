@@ -1,13 +1,17 @@
 package net.syntactickitsune.furblorb.cli;
 
+import java.nio.channels.FileChannel;
 import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import com.google.gson.GsonBuilder;
@@ -30,9 +34,12 @@ import net.syntactickitsune.furblorb.finmer.io.FinmerProjectReader.ReadOnlyExter
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectWriter;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectWriter.WriteOnlyExternalFileHandler;
 import net.syntactickitsune.furblorb.finmer.io.FurballReader;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables;
 import net.syntactickitsune.furblorb.finmer.io.FurballWriter;
+import net.syntactickitsune.furblorb.finmer.io.ProjectBuildCache;
 import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.CodecMode;
+import net.syntactickitsune.furblorb.io.codec.FlushingBinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.JsonCodec;
 
 /**
@@ -42,6 +49,13 @@ import net.syntactickitsune.furblorb.io.codec.JsonCodec;
  */
 final class GeneralSteps {
 
+	static final record UseBuildCache(Path file) implements Step {
+		@Override
+		public void run(WorkingData data) throws Exception {
+			data.buildCache = file;
+		}
+	}
+
 	static final record Read(Path from) implements Step {
 		@Override
 		public void run(WorkingData data) throws Exception {
@@ -52,11 +66,22 @@ final class GeneralSteps {
 
 			try {
 				if (filename.endsWith(".fnproj")) {
-					data.setFurball(new FinmerProjectReader(ReadOnlyExternalFileHandler.forProjectFile(from)).readFurball());
+					final FinmerProjectReader reader = new FinmerProjectReader(ReadOnlyExternalFileHandler.forProjectFile(from)).setExecutor(ForkJoinPool.commonPool());
+					if (data.buildCache != null) {
+						final ProjectBuildCache cache = ProjectBuildCache.open(data.buildCache);
+						data.setFurball(reader.setBuildCache(cache).readFurball());
+						cache.save();
+						System.out.printf("! Reused %d of %d assets from build cache %s.\n", cache.hits(), cache.hits() + cache.misses(), data.buildCache);
+					} else
+						data.setFurball(reader.readFurball());
 					kind = "Finmer project";
 					isFurball = true;
 				} else if (filename.endsWith(".furball")) {
-					data.setFurball(new FurballReader(Files.readAllBytes(from)).readFurball());
+					// Assets are read lazily, since most steps only ever look at a handful of them (if any),
+					// and retain their encoded form so that unmodified ones are copied as-is when writing.
+					// Both keep referring to the data they were read from, so the file is read onto the heap rather than mapped:
+					// it may well be overwritten by a later step.
+					data.setFurball(new FurballReader(Files.readAllBytes(from)).setLazy(true).setRetainEncoded(true).readFurball());
 					kind = "furball";
 					isFurball = true;
 				} else if (filename.endsWith(".sav.json")) {
@@ -97,19 +122,23 @@ final class GeneralSteps {
 		private void check(Furball furball) {
 			final Map<UUID, String> assetsById = new HashMap<>();
 
-			for (FurballAsset asset : furball.assets) {
-				if (assetsById.containsValue(asset.filename))
-					System.out.printf("! Warning: multiple assets with name %s: %s and %s\n", asset.filename,
+			// Uses the ID and file name accessors so that lazily-read assets needn't be decoded.
+			for (int i = 0; i < furball.assets.size(); i++) {
+				final UUID id = furball.assets.id(i);
+				final String filename = furball.assets.filename(i);
+
+				if (assetsById.containsValue(filename))
+					System.out.printf("! Warning: multiple assets with name %s: %s and %s\n", filename,
 							assetsById.entrySet().stream()
-							.filter(entry -> asset.filename.equals(entry.getValue()))
+							.filter(entry -> filename.equals(entry.getValue()))
 							.map(Map.Entry::getKey)
 							.map(Object::toString)
 							.collect(Collectors.joining(", ")),
-							asset.id);
+							id);
 
-				final String name = assetsById.putIfAbsent(asset.id, asset.filename);
+				final String name = assetsById.putIfAbsent(id, filename);
 				if (name != null)
-					System.out.printf("! Warning: multiple assets with id %s: %s and %s\n", asset.id, name, asset.filename);
+					System.out.printf("! Warning: multiple assets with id %s: %s and %s\n", id, name, filename);
 			}
 		}
 	}
@@ -143,14 +172,29 @@ final class GeneralSteps {
 
 			try {
 				if (filename.endsWith(".furball")) {
-					final BinaryCodec codec = new BinaryCodec(CodecMode.WRITE_ONLY);
-					new FurballWriter(codec).write(furball);
-
-					Files.write(to, codec.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+					// Assets may still be decoded (and fail to decode) as they are written, and the file being written may be the one
+					// they are read from, so the furball is written to a temporary file that only replaces the destination once complete.
+					final Path temp = to.resolveSibling(filename + ".tmp");
+					try {
+						try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+							final FurballWriter writer = new FurballWriter(new FlushingBinaryCodec(channel, 64 * 1024)).setExecutor(ForkJoinPool.commonPool());
+							if (data.compressionLevel != null)
+								writer.setCompressionLevel(data.compressionLevel).setParallelCompression(true);
+							writer.write(furball);
+						}
+
+						try {
+							Files.move(temp, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+						} catch (AtomicMoveNotSupportedException e) {
+							Files.move(temp, to, StandardCopyOption.REPLACE_EXISTING);
+						}
+					} finally {
+						Files.deleteIfExists(temp);
+					}
 
 					kind = "a furball";
 				} else if (filename.endsWith(".fnproj")) {
-					new FinmerProjectWriter(WriteOnlyExternalFileHandler.forProjectFile(to)).writeFurball(furball);
+					new FinmerProjectWriter(WriteOnlyExternalFileHandler.forProjectFile(to).skippingUnchanged()).setExecutor(ForkJoinPool.commonPool()).writeFurball(furball);
 					kind = "a Finmer project";
 				} else
 					throw new AssertionError("unreachable");
@@ -239,19 +283,19 @@ final class GeneralSteps {
 				System.out.printf("Scripts:          %s\n", count(furball, ScriptAsset.class));
 
 				if (verbose) {
-					final int nameWidth = Math.max(furball.assets.stream()
-							.map(fa -> fa.filename.length() + 2)
-							.reduce(0, Math::max), 12);
+					int nameWidth = 12;
+					for (int i = 0; i < furball.assets.size(); i++)
+						nameWidth = Math.max(nameWidth, furball.assets.filename(i).length() + 2);
 
 					System.out.printf("\n! Assets (%d):\n", furball.assets.size());
 					System.out.printf("! Type%sFile Name%sID\n", " ".repeat(16 - 4), " ".repeat(nameWidth - 9));
-					for (FurballAsset asset : furball.assets)
+					for (int i = 0; i < furball.assets.size(); i++)
 						// Concatenation? In *MY* format strings? It's more likely than you think.
 						System.out.printf(
 								"- %-16s%-" + nameWidth + "s%s\n",
-								asset.metadata().name().substring("Asset".length()),
-								asset.filename,
-								asset.id);
+								FurballSerializables.lookupByClass(furball.assets.type(i)).name().substring("Asset".length()),
+								furball.assets.filename(i),
+								furball.assets.id(i));
 				}
 			}
 		}
@@ -392,7 +436,11 @@ final class GeneralSteps {
 		}
 
 		private static String count(Furball furball, Class<? extends FurballAsset> clazz) {
-			final long count = furball.assets.stream().filter(clazz::isInstance).count();
+			long count = 0;
+			for (int i = 0; i < furball.assets.size(); i++)
+				if (clazz.isAssignableFrom(furball.assets.type(i)))
+					count++;
+
 			final int fullCount = furball.assets.size();
 			return "%d (%.1f%%)".formatted(count, ((double) count / fullCount * 100));
 		}
@@ -1,5 +1,7 @@
 package net.syntactickitsune.furblorb.cli;
 
+import java.nio.file.Path;
+
 import org.jetbrains.annotations.Nullable;
 
 import net.syntactickitsune.furblorb.finmer.FinmerSaveData;
@@ -31,6 +33,22 @@ final class WorkingData {
 	@Nullable
 	Byte formatVersion;
 
+	/**
+	 * The current explicit compression level. Will be {@code null} if no specific compression level has been set.
+	 * If a specific compression level has been set, compressed furballs are written with it, compressing in parallel.
+	 * @since 2.0.0
+	 */
+	@Nullable
+	Integer compressionLevel;
+
+	/**
+	 * The current build cache file. Will be {@code null} if no build cache has been requested.
+	 * If a build cache file has been set, Finmer projects are read using (and update) it.
+	 * @since 2.0.0
+	 */
+	@Nullable
+	Path buildCache;
+
 	/**
 	 * Returns the target format version, whether that be {@linkplain #formatVersion a specific user-set one} or the {@linkplain #furball}'s current format version.
 	 * @return The target format version.
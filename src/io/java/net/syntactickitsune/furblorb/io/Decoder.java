@@ -40,6 +40,16 @@ public interface Decoder {
 	 */
 	public boolean validate();
 
+	/**
+	 * Returns the table that this {@code Decoder} deduplicates the strings it decodes against, if any.
+	 * Deduplication is applied by the {@code Decoder} itself; serialization code does not need to do anything with the table.
+	 * @return The string table, or {@code null} if strings are not deduplicated.
+	 * @since 2.0.0
+	 */
+	public default @Nullable StringTable stringTable() {
+		return null;
+	}
+
 	/**
 	 * Reads the next {@code byte} from this {@code Decoder}'s sequence.
 	 * @param key The key that the value is associated with. May be {@code null} if the {@code Decoder} doesn't support keys.
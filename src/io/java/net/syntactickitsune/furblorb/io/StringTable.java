@@ -0,0 +1,92 @@
+package net.syntactickitsune.furblorb.io;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * A {@code StringTable} deduplicates strings as they are decoded, so that strings which occur many times over
+ * (such as variable names, property keys and scene node keys) share a single instance rather than each occurrence keeping its own.
+ * Codecs consult the table they have been {@linkplain Decoder#stringTable() given} for every string they decode.
+ * </p>
+ * <p>
+ * The table is bounded: it has a fixed number of slots, each holding a single string, and a string that maps to an occupied slot
+ * evicts whichever string was there before. Strings longer than the table's maximum length are passed through without being stored,
+ * since long strings (scripts and scene text) are rarely repeated and would only evict the short ones that are.
+ * </p>
+ * <p>
+ * A {@code StringTable} may be shared by codecs decoding on different threads.
+ * Slots are read and written without synchronization, which at worst causes a string to not be deduplicated.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ */
+public final class StringTable {
+
+	/**
+	 * The number of slots used by {@link #StringTable()}.
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/**
+	 * The maximum length of the strings stored by {@link #StringTable()}.
+	 */
+	public static final int DEFAULT_MAX_LENGTH = 64;
+
+	private final String[] slots;
+	private final int maxLength;
+
+	/**
+	 * Constructs a new {@code StringTable} with {@linkplain #DEFAULT_CAPACITY the default capacity} and
+	 * {@linkplain #DEFAULT_MAX_LENGTH the default maximum length}.
+	 */
+	public StringTable() {
+		this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+	}
+
+	/**
+	 * Constructs a new {@code StringTable} with the specified capacity and maximum length.
+	 * @param capacity The number of slots. This is rounded up to the next power of two.
+	 * @param maxLength The length of the longest strings to store.
+	 * @throws IllegalArgumentException If {@code capacity} is not positive or exceeds 2<sup>30</sup>, or if {@code maxLength} is negative.
+	 */
+	public StringTable(int capacity, int maxLength) {
+		if (capacity <= 0 || capacity > 1 << 30) throw new IllegalArgumentException("Capacity out of range: " + capacity);
+		if (maxLength < 0) throw new IllegalArgumentException("Max length must be positive: " + maxLength);
+
+		slots = new String[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Returns the instance of the specified string that is stored in this table, storing it if there isn't one yet.
+	 * @param value The string to deduplicate.
+	 * @return A string equal to {@code value}; either {@code value} itself or a previously stored instance.
+	 * @throws NullPointerException If {@code value} is {@code null}.
+	 */
+	public String intern(String value) {
+		if (Objects.requireNonNull(value, "value").length() > maxLength) return value;
+
+		final int hash = value.hashCode();
+		final int slot = (hash ^ hash >>> 16) & (slots.length - 1);
+
+		final String existing = slots[slot];
+		if (value.equals(existing)) return existing;
+
+		slots[slot] = value;
+		return value;
+	}
+
+	/**
+	 * @return The number of slots in this table.
+	 */
+	public int capacity() {
+		return slots.length;
+	}
+
+	/**
+	 * @return The length of the longest strings this table stores.
+	 */
+	public int maxLength() {
+		return maxLength;
+	}
+}
\ No newline at end of file
@@ -1,8 +1,16 @@
 package net.syntactickitsune.furblorb.io.codec;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -44,6 +52,8 @@ public class BinaryCodec extends SequenceCodec {
 
 	protected ByteBuffer buf;
 
+	private byte @Nullable [] scratch;
+
 	/**
 	 * <p>Constructs a new {@code BinaryCodec} with the specified backing buffer.</p>
 	 * <p>If the codec is to be written to, it is recommended <i>not</i> to keep
@@ -83,6 +93,26 @@ public class BinaryCodec extends SequenceCodec {
 		buf.order(ByteOrder.LITTLE_ENDIAN);
 	}
 
+	/**
+	 * <p>Creates a new read-only {@code BinaryCodec} backed by a memory-mapped view of the specified file.
+	 * The file's contents are not copied onto the heap; instead, they are paged in by the operating system as they are read.
+	 * The byte ordering of the backing buffer is {@link ByteOrder#LITTLE_ENDIAN}.</p>
+	 * <p>The mapping remains valid until the backing buffer is garbage collected.
+	 * On some platforms, this may prevent the file from being modified or deleted while the codec (or its buffer) is still reachable.</p>
+	 * @param file The file to map.
+	 * @return The new {@code BinaryCodec}.
+	 * @throws NullPointerException If {@code file} is {@code null}.
+	 * @throws IOException If an I/O error occurs opening or mapping the file.
+	 * @since 2.0.0
+	 */
+	public static BinaryCodec map(Path file) throws IOException {
+		Objects.requireNonNull(file, "file");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new BinaryCodec(buf.order(ByteOrder.LITTLE_ENDIAN), CodecMode.READ_ONLY);
+		}
+	}
+
 	/**
 	 * Returns the {@code BinaryCodec}'s backing buffer.
 	 * This buffer may be different from the one the {@code BinaryCodec} was initially setup with,
@@ -97,14 +127,37 @@ public class BinaryCodec extends SequenceCodec {
 	 * Creates and returns a new {@code byte} array with the contents of this {@code BinaryCodec}.
 	 * This is preferable to digging it out of the buffer since it may be resized automatically,
 	 * and thus the length of the buffer may not equal the number of {@code byte}s written.
+	 * This works for any kind of backing buffer, including direct and memory-mapped ones.
 	 * @return The new {@code byte} array.
 	 */
 	public byte[] toByteArray() {
 		final byte[] bytes = new byte[buf.position()];
-		System.arraycopy(buf.array(), 0, bytes, 0, bytes.length);
+		buf.get(0, bytes);
 		return bytes;
 	}
 
+	/**
+	 * Writes the contents of this {@code BinaryCodec} to the specified channel.
+	 * That is, everything from the start of the backing buffer up to its current {@linkplain #position() position}.
+	 * This avoids the intermediate copy made by {@link #toByteArray()}.
+	 * The position of the backing buffer is not changed.
+	 * @param channel The channel to write to.
+	 * @return The number of bytes written.
+	 * @throws NullPointerException If {@code channel} is {@code null}.
+	 * @throws IOException If an I/O error occurs while writing.
+	 * @since 2.0.0
+	 */
+	public long write(WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(channel, "channel");
+		final ByteBuffer src = buf.duplicate().flip();
+
+		long written = 0;
+		while (src.hasRemaining())
+			written += channel.write(src);
+
+		return written;
+	}
+
 	/**
 	 * Returns the current position of the {@code BinaryCodec}'s backing buffer.
 	 * @return The current position of the backing buffer.
@@ -126,6 +179,88 @@ public class BinaryCodec extends SequenceCodec {
 		return buf.hasRemaining();
 	}
 
+	/**
+	 * Reads all of the remaining bytes from this {@code BinaryCodec}.
+	 * @return The remaining bytes.
+	 * @throws UnsupportedOperationException If the codec is write-only.
+	 * @since 2.0.0
+	 */
+	public byte[] readRemainingBytes() {
+		checkRead();
+		return readBytes(buf.remaining());
+	}
+
+	/**
+	 * Returns an {@link InputStream} that reads the remaining bytes of this {@code BinaryCodec}.
+	 * Reading from the stream advances the codec (and vice versa), so the two should not be used at the same time.
+	 * This works for any {@code BinaryCodec}, including {@link StreamingBinaryCodec StreamingBinaryCodecs}, which are refilled as the stream is read.
+	 * @return The stream.
+	 * @throws UnsupportedOperationException If the codec is write-only.
+	 * @since 2.0.0
+	 */
+	public InputStream asInputStream() {
+		checkRead();
+		return new InputStream() {
+			@Override
+			public int read() {
+				return hasRemaining() ? buf.get() & 0xFF : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				Objects.checkFromIndexSize(off, len, b.length);
+				if (len == 0) return 0;
+				if (!hasRemaining()) return -1;
+
+				final int n = Math.min(len, buf.remaining());
+				buf.get(b, off, n);
+				return n;
+			}
+
+			@Override
+			public int available() {
+				return buf.remaining();
+			}
+		};
+	}
+
+	/**
+	 * Returns an {@link OutputStream} that writes to this {@code BinaryCodec}.
+	 * Writing to the stream advances the codec (and vice versa), so the two should not be used at the same time.
+	 * Closing the stream does nothing.
+	 * @return The stream.
+	 * @throws UnsupportedOperationException If the codec is read-only.
+	 * @since 2.0.0
+	 */
+	public OutputStream asOutputStream() {
+		checkWrite(0);
+		return new OutputStream() {
+			@Override
+			public void write(int b) {
+				writeByte((byte) b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				Objects.checkFromIndexSize(off, len, b.length);
+				writeBytes(ByteBuffer.wrap(b, off, len));
+			}
+		};
+	}
+
+	/**
+	 * Advances past the specified number of bytes without reading them.
+	 * @param length The number of bytes to skip.
+	 * @throws UnsupportedOperationException If the codec is write-only.
+	 * @throws IllegalArgumentException If {@code length} is negative or exceeds the number of remaining bytes.
+	 * @since 2.0.0
+	 */
+	public void skipBytes(int length) {
+		if (length < 0) throw new IllegalArgumentException("Length must be positive: " + length);
+		checkRead(length);
+		buf.position(buf.position() + length);
+	}
+
 	@Override
 	public boolean readCompressedTypes() {
 		return true;
@@ -138,7 +273,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public byte readByte() {
-		checkRead();
+		checkRead(1);
 		return buf.get();
 	}
 
@@ -150,8 +285,8 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public byte[] readBytes(byte[] array) {
-		checkRead();
-		buf.get(Objects.requireNonNull(array));
+		checkRead(Objects.requireNonNull(array).length);
+		buf.get(array);
 		return array;
 	}
 
@@ -161,6 +296,19 @@ public class BinaryCodec extends SequenceCodec {
 		buf.put(value);
 	}
 
+	/**
+	 * Writes the remaining bytes of the specified buffer, without an intermediate copy to the heap.
+	 * The position of {@code src} is not changed.
+	 * @param src The buffer to write the remaining bytes of.
+	 * @throws UnsupportedOperationException If the codec is read-only.
+	 * @throws NullPointerException If {@code src} is {@code null}.
+	 * @since 2.0.0
+	 */
+	public void writeBytes(ByteBuffer src) {
+		checkWrite(src.remaining());
+		buf.put(src.duplicate());
+	}
+
 	@Override
 	public byte[] readByteArray() {
 		return readBytes(readLength());
@@ -189,7 +337,6 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public boolean readBoolean() {
-		checkRead();
 		return readByte() != 0;
 	}
 
@@ -201,7 +348,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public char readChar() {
-		checkRead();
+		checkRead(2);
 		return buf.getChar();
 	}
 
@@ -213,7 +360,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public short readShort() {
-		checkRead();
+		checkRead(2);
 		return buf.getShort();
 	}
 
@@ -225,7 +372,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public int readInt() {
-		checkRead();
+		checkRead(4);
 		return buf.getInt();
 	}
 
@@ -237,7 +384,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public int read7BitInt() {
-		checkRead();
+		checkRead(5); // Worst case scenario
 		int ret = 0;
 		int shift = 0;
 		byte next;
@@ -270,7 +417,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public long readLong() {
-		checkRead();
+		checkRead(8);
 		return buf.getLong();
 	}
 
@@ -282,7 +429,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public float readFloat() {
-		checkRead();
+		checkRead(4);
 		return buf.getFloat();
 	}
 
@@ -294,7 +441,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public double readDouble() {
-		checkRead();
+		checkRead(8);
 		return buf.getDouble();
 	}
 
@@ -306,7 +453,7 @@ public class BinaryCodec extends SequenceCodec {
 
 	@Override
 	public UUID readUUID() {
-		checkRead();
+		checkRead(16);
 		final boolean big = buf.order() == ByteOrder.BIG_ENDIAN;
 
 		// The following lines of code likely make no sense, but don't worry: C#'s Guid doesn't either.
@@ -320,6 +467,7 @@ public class BinaryCodec extends SequenceCodec {
 		final long mostSig = (Integer.toUnsignedLong(a) << 32) | (Short.toUnsignedLong(b) << 16) | Short.toUnsignedLong(c);
 		final long leastSig = d;
 
+		if (mostSig == 0 && leastSig == 0) return EMPTY_UUID;
 		return new UUID(big ? leastSig : mostSig, big ? mostSig : leastSig);
 	}
 
@@ -348,11 +496,8 @@ public class BinaryCodec extends SequenceCodec {
 	public String readString() {
 		checkRead();
 		final int len = read7BitInt();
-
-		final byte[] bytes = new byte[len];
-		buf.get(bytes);
-
-		return new String(bytes, StandardCharsets.UTF_8);
+		checkRead(len);
+		return decodeString(len);
 	}
 
 	@Override
@@ -372,11 +517,8 @@ public class BinaryCodec extends SequenceCodec {
 	public String readFixedLengthString(int length) {
 		checkRead();
 		if (length < 0) throw new IllegalArgumentException("Length must be positive: " + length);
-
-		final byte[] bytes = new byte[length];
-		buf.get(bytes);
-
-		return new String(bytes, StandardCharsets.UTF_8);
+		checkRead(length);
+		return decodeString(length);
 	}
 
 	@Override
@@ -388,11 +530,41 @@ public class BinaryCodec extends SequenceCodec {
 		buf.put(bytes);
 	}
 
+	/**
+	 * Decodes the next {@code len} bytes of the buffer as UTF-8.
+	 * Heap buffers are decoded in place; other buffers are first copied into a reusable scratch array.
+	 * Either way, the only allocation is the string itself.
+	 * The string is then {@linkplain #dedupe(String) deduplicated}.
+	 */
+	private String decodeString(int len) {
+		if (buf.remaining() < len) throw new BufferUnderflowException();
+		if (len == 0) return "";
+
+		final int pos = buf.position();
+		final String ret;
+		if (buf.hasArray())
+			ret = new String(buf.array(), buf.arrayOffset() + pos, len, StandardCharsets.UTF_8);
+		else {
+			final byte[] bytes = scratch(len);
+			buf.get(pos, bytes, 0, len);
+			ret = new String(bytes, 0, len, StandardCharsets.UTF_8);
+		}
+
+		buf.position(pos + len);
+		return dedupe(ret);
+	}
+
+	private byte[] scratch(int len) {
+		if (scratch == null || scratch.length < len)
+			scratch = new byte[Math.max(len, 256)];
+		return scratch;
+	}
+
 	@Override
 	public <E extends Enum<E> & INamedEnum> E readEnum(Class<E> type, Function<E, String> idFunction) {
 		checkRead();
-		final E[] vals = type.getEnumConstants();
-		final ParsingStrategy.NumberType numberType = numberType(type);
+		final EnumTable<E> table = EnumTable.of(type);
+		final ParsingStrategy.NumberType numberType = table.numberType;
 
 		final int index = switch (numberType) {
 			case BYTE -> Byte.toUnsignedInt(readByte());
@@ -400,13 +572,13 @@ public class BinaryCodec extends SequenceCodec {
 			case INT -> readInt();
 		};
 
-		if (index < 0 || index >= vals.length)
+		if (index < 0 || index >= table.size())
 			throw new FurblorbParsingException("Attempt to access enum constant " + index + " which does not exist (enum: " + type.getName() + ", using " + numberType + " number type)");
 
-		if (vals[index].formatVersion() > formatVersion())
-			throw new FurblorbParsingException("Attempt to access enum constant " + vals[index] + " which does not exist in this format version (enum: " + type.getName() + ", using " + numberType + " number type, format version: " + formatVersion() + ", required format version: " + vals[index].formatVersion() + ")");
+		if (table.formatVersion(index) > formatVersion())
+			throw new FurblorbParsingException("Attempt to access enum constant " + table.constant(index) + " which does not exist in this format version (enum: " + type.getName() + ", using " + numberType + " number type, format version: " + formatVersion() + ", required format version: " + table.formatVersion(index) + ")");
 
-		return vals[index];
+		return table.constant(index);
 	}
 
 	@Override
@@ -417,7 +589,7 @@ public class BinaryCodec extends SequenceCodec {
 		if (value.formatVersion() > formatVersion())
 			throw new FurblorbParsingException("Cannot encode " + value + " for format version " + formatVersion() + " as it is only available in " + value.formatVersion() + " and higher");
 
-		final ParsingStrategy.NumberType numberType = numberType(value.getClass());
+		final ParsingStrategy.NumberType numberType = EnumTable.of(value.getDeclaringClass()).numberType;
 		switch (numberType) {
 			case BYTE -> writeByte((byte) value.ordinal());
 			case SHORT -> writeShort((short) value.ordinal());
@@ -514,6 +686,19 @@ public class BinaryCodec extends SequenceCodec {
 		if (!mode.canRead()) throw new UnsupportedOperationException("Codec is write-only");
 	}
 
+	/**
+	 * Checks to see make sure read access is supported and ensures that at least the specified number of bytes are available to read,
+	 * provided that the underlying data has that many bytes left.
+	 * Codecs backed by a complete buffer have nothing to ensure, and so this is equivalent to {@link #checkRead()}.
+	 * Codecs that read their data incrementally use this to pull in more data.
+	 * @param length The number of bytes about to be read.
+	 * @throws UnsupportedOperationException If the codec is write-only.
+	 * @since 2.0.0
+	 */
+	public void checkRead(int length) {
+		checkRead();
+	}
+
 	/**
 	 * Checks to see make sure write access is supported and ensures that the codec has capacity for at least the specified number of bytes.
 	 * @param length The number of bytes to ensure capacity for.
@@ -524,7 +709,8 @@ public class BinaryCodec extends SequenceCodec {
 
 		if (buf.remaining() < length) {
 			final ByteBuffer old = buf;
-			buf = ByteBuffer.allocate(old.capacity() + Math.max(length, old.capacity()));
+			final int capacity = old.capacity() + Math.max(length, old.capacity());
+			buf = old.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
 			buf.order(old.order());
 			old.flip();
 			buf.put(old);
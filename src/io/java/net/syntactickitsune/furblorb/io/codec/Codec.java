@@ -1,8 +1,7 @@
 package net.syntactickitsune.furblorb.io.codec;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -10,6 +9,7 @@ import net.syntactickitsune.furblorb.io.Decoder;
 import net.syntactickitsune.furblorb.io.Encoder;
 import net.syntactickitsune.furblorb.io.FurblorbException;
 import net.syntactickitsune.furblorb.io.ParsingStrategy;
+import net.syntactickitsune.furblorb.io.StringTable;
 
 /**
  * The {@code Codec} class serves as the base class for unifying {@link Encoder} and {@link Decoder}.
@@ -20,13 +20,18 @@ import net.syntactickitsune.furblorb.io.ParsingStrategy;
  */
 public abstract class Codec implements Encoder, Decoder {
 
-	private static final Map<Class<?>, ParsingStrategy.NumberType> ENUM_NUMBER_CACHE = new HashMap<>();
-
 	/**
 	 * A special value indicating an unset format version.
 	 */
 	protected static final byte UNSET_FORMAT_VERSION = 0;
 
+	/**
+	 * The all-zero {@code UUID}.
+	 * Codecs decode every all-zero {@code UUID} as this instance, rather than allocating a new one each time.
+	 * @since 2.0.0
+	 */
+	public static final UUID EMPTY_UUID = new UUID(0, 0);
+
 	/**
 	 * The format version of the {@code Codec}.
 	 * @see #formatVersion()
@@ -39,6 +44,12 @@ public abstract class Codec implements Encoder, Decoder {
 	 */
 	protected boolean validate = true;
 
+	/**
+	 * See {@link #stringTable()}.
+	 */
+	@Nullable
+	protected StringTable strings;
+
 	/**
 	 * The mode of the {@code Codec}.
 	 */
@@ -93,6 +104,41 @@ public abstract class Codec implements Encoder, Decoder {
 		validate = value;
 	}
 
+	@Override
+	public @Nullable StringTable stringTable() {
+		return strings;
+	}
+
+	/**
+	 * Changes the {@linkplain #stringTable() string table} to the specified value.
+	 * @param value The new string table, or {@code null} to stop deduplicating strings.
+	 * @since 2.0.0
+	 */
+	public void setStringTable(@Nullable StringTable value) {
+		strings = value;
+	}
+
+	/**
+	 * Deduplicates the specified decoded string against the {@linkplain #stringTable() string table}, if there is one.
+	 * Empty strings are always replaced with the {@code ""} constant, table or not.
+	 * @param value The decoded string.
+	 * @return {@code value}, or an equal string from the table.
+	 * @since 2.0.0
+	 */
+	protected final String dedupe(String value) {
+		if (value.isEmpty()) return "";
+		return strings == null ? value : strings.intern(value);
+	}
+
+	/**
+	 * Returns the canonical instance of the specified {@code UUID}: {@link #EMPTY_UUID} if it is all-zero, or else {@code value} itself.
+	 * @param value The decoded {@code UUID}.
+	 * @return The canonical instance.
+	 */
+	static UUID canonical(UUID value) {
+		return value.getMostSignificantBits() == 0 && value.getLeastSignificantBits() == 0 ? EMPTY_UUID : value;
+	}
+
 	/**
 	 * <p>
 	 * Determines the {@linkplain net.syntactickitsune.furblorb.io.ParsingStrategy.NumberType number type} of the specified enum class.
@@ -106,17 +152,8 @@ public abstract class Codec implements Encoder, Decoder {
 	 * @return The corresponding number type.
 	 * @see ParsingStrategy
 	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected final ParsingStrategy.NumberType numberType(Class<? extends Enum> clazz) {
-		return ENUM_NUMBER_CACHE.computeIfAbsent(clazz, k -> {
-			@Nullable
-			final ParsingStrategy ps = k.getAnnotation(ParsingStrategy.class);
-			if (ps != null) return ps.value();
-
-			final int count = clazz.getEnumConstants().length;
-			if (count <= 256) return ParsingStrategy.NumberType.BYTE;
-			if (count <= 65536) return ParsingStrategy.NumberType.SHORT;
-
-			return ParsingStrategy.NumberType.INT;
-		});
+		return EnumTable.of((Class) clazz).numberType;
 	}
 }
\ No newline at end of file
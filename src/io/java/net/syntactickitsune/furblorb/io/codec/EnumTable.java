@@ -0,0 +1,139 @@
+package net.syntactickitsune.furblorb.io.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.syntactickitsune.furblorb.io.INamedEnum;
+import net.syntactickitsune.furblorb.io.ParsingStrategy;
+
+/**
+ * <p>
+ * An {@code EnumTable} holds everything the codecs need to know in order to read or write the constants of a particular {@code enum}:
+ * its constants, its {@linkplain ParsingStrategy.NumberType number type}, the format version each constant was introduced in,
+ * and a lookup table from {@linkplain INamedEnum#id() id} to constant.
+ * </p>
+ * <p>
+ * Tables are computed once per {@code enum} class and are immutable, so they can be safely shared between threads.
+ * </p>
+ * @param <E> The type of the {@code enum}.
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ */
+final class EnumTable<E extends Enum<E>> {
+
+	private static final ClassValue<EnumTable<?>> TABLES = new ClassValue<>() {
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		protected EnumTable<?> computeValue(Class<?> type) {
+			return new EnumTable(type);
+		}
+	};
+
+	final Class<E> type;
+	final ParsingStrategy.NumberType numberType;
+	private final E[] constants;
+	private final byte[] formatVersions;
+	private final Map<String, E> byId;
+	private final boolean duplicateIds;
+
+	private EnumTable(Class<E> type) {
+		this.type = type;
+		constants = type.getEnumConstants();
+		numberType = numberType(type, constants.length);
+		formatVersions = new byte[constants.length];
+		byId = new HashMap<>(constants.length * 2);
+
+		boolean duplicateIds = false;
+		for (E e : constants)
+			if (e instanceof INamedEnum named) {
+				formatVersions[e.ordinal()] = named.formatVersion();
+
+				final String id = named.id();
+				if (id != null && byId.putIfAbsent(id, e) != null)
+					duplicateIds = true;
+			}
+
+		this.duplicateIds = duplicateIds;
+	}
+
+	/**
+	 * Returns the {@code EnumTable} for the specified {@code enum} class.
+	 * @param <E> The type of the {@code enum}.
+	 * @param type The {@code enum} class.
+	 * @return The table.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Enum<E>> EnumTable<E> of(Class<E> type) {
+		return (EnumTable<E>) TABLES.get(type);
+	}
+
+	private static ParsingStrategy.NumberType numberType(Class<?> type, int count) {
+		@Nullable
+		final ParsingStrategy ps = type.getAnnotation(ParsingStrategy.class);
+		if (ps != null) return ps.value();
+
+		if (count <= 256) return ParsingStrategy.NumberType.BYTE;
+		if (count <= 65536) return ParsingStrategy.NumberType.SHORT;
+
+		return ParsingStrategy.NumberType.INT;
+	}
+
+	/**
+	 * @return The number of constants in the {@code enum}.
+	 */
+	int size() {
+		return constants.length;
+	}
+
+	/**
+	 * Returns the constant with the specified ordinal.
+	 * @param ordinal The ordinal. Must be in range.
+	 * @return The constant.
+	 */
+	E constant(int ordinal) {
+		return constants[ordinal];
+	}
+
+	/**
+	 * Returns the earliest format version the constant with the specified ordinal is available in.
+	 * @param ordinal The ordinal. Must be in range.
+	 * @return The format version.
+	 */
+	byte formatVersion(int ordinal) {
+		return formatVersions[ordinal];
+	}
+
+	/**
+	 * Looks up the constant with the specified {@linkplain INamedEnum#id() id} that is available in the specified format version.
+	 * @param id The id.
+	 * @param formatVersion The format version.
+	 * @return The constant, or {@code null} if there is no such constant.
+	 */
+	@Nullable
+	E byId(String id, byte formatVersion) {
+		if (duplicateIds) return byId(id, e -> ((INamedEnum) e).id(), formatVersion);
+
+		final E e = byId.get(id);
+		return e != null && formatVersions[e.ordinal()] <= formatVersion ? e : null;
+	}
+
+	/**
+	 * Looks up the constant whose id, according to the specified function, is the specified id and that is available in the specified format version.
+	 * Unlike {@link #byId(String, byte)}, this must consult every constant, since the ids given by arbitrary functions cannot be cached.
+	 * @param id The id.
+	 * @param idFunction The function determining the id of each constant.
+	 * @param formatVersion The format version.
+	 * @return The constant, or {@code null} if there is no such constant.
+	 */
+	@Nullable
+	E byId(String id, Function<? super E, String> idFunction, byte formatVersion) {
+		for (E e : constants)
+			if (formatVersions[e.ordinal()] <= formatVersion && id.equals(idFunction.apply(e)))
+				return e;
+
+		return null;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package net.syntactickitsune.furblorb.io.codec;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * <p>
+ * {@code FlushingBinaryCodec} is a write-only {@link BinaryCodec} that pushes its data to a {@link WritableByteChannel}
+ * (or an {@link OutputStream}) as it is written, rather than keeping all of it in memory.
+ * It is the write-only counterpart to {@link StreamingBinaryCodec}.
+ * Bytes are written into a small window that is flushed to the channel whenever it fills up.
+ * </p>
+ * <p>
+ * The window only grows when a single value is larger than it, in which case it grows just enough to fit that value
+ * (and shrinks back down once it has been flushed).
+ * {@code byte} arrays and buffers larger than the window bypass it entirely.
+ * As such, the working set of a {@code FlushingBinaryCodec} is bounded by the larger of its window size and the largest string written to it.
+ * </p>
+ * <p>
+ * Anything still in the window must be pushed out with {@link #flush()} once writing is complete.
+ * Since only the window is retained, {@link #toByteArray()} and {@link #write(WritableByteChannel)} are not supported.
+ * I/O errors from the underlying channel are rethrown as {@link UncheckedIOException UncheckedIOExceptions}.
+ * The channel is never closed by the {@code FlushingBinaryCodec}.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see BinaryCodec
+ */
+public class FlushingBinaryCodec extends BinaryCodec implements Flushable {
+
+	/**
+	 * The default size of the window, in bytes.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 8 * 1024;
+
+	private final WritableByteChannel channel;
+	private final int windowSize;
+	private long flushed;
+
+	/**
+	 * Constructs a new {@code FlushingBinaryCodec} writing to the specified channel using a little-endian window of the specified size.
+	 * @param channel The channel to write to.
+	 * @param windowSize The size of the window, in bytes.
+	 * @throws NullPointerException If {@code channel} is {@code null}.
+	 * @throws IllegalArgumentException If {@code windowSize} is not positive.
+	 */
+	public FlushingBinaryCodec(WritableByteChannel channel, int windowSize) {
+		super(ByteBuffer.allocate(checkWindowSize(windowSize)).order(ByteOrder.LITTLE_ENDIAN), CodecMode.WRITE_ONLY);
+		this.channel = Objects.requireNonNull(channel, "channel");
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Constructs a new {@code FlushingBinaryCodec} writing to the specified channel using a little-endian window of
+	 * {@linkplain #DEFAULT_WINDOW_SIZE the default size}.
+	 * @param channel The channel to write to.
+	 * @throws NullPointerException If {@code channel} is {@code null}.
+	 */
+	public FlushingBinaryCodec(WritableByteChannel channel) {
+		this(channel, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs a new {@code FlushingBinaryCodec} writing to the specified stream using a little-endian window of the specified size.
+	 * @param out The stream to write to.
+	 * @param windowSize The size of the window, in bytes.
+	 * @throws NullPointerException If {@code out} is {@code null}.
+	 * @throws IllegalArgumentException If {@code windowSize} is not positive.
+	 */
+	public FlushingBinaryCodec(OutputStream out, int windowSize) {
+		this(Channels.newChannel(Objects.requireNonNull(out, "out")), windowSize);
+	}
+
+	/**
+	 * Constructs a new {@code FlushingBinaryCodec} writing to the specified stream using a little-endian window of
+	 * {@linkplain #DEFAULT_WINDOW_SIZE the default size}.
+	 * @param out The stream to write to.
+	 * @throws NullPointerException If {@code out} is {@code null}.
+	 */
+	public FlushingBinaryCodec(OutputStream out) {
+		this(out, DEFAULT_WINDOW_SIZE);
+	}
+
+	private static int checkWindowSize(int windowSize) {
+		if (windowSize <= 0) throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+		return windowSize;
+	}
+
+	/**
+	 * Always throws, since a {@code FlushingBinaryCodec} does not retain the data written to it.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public byte[] toByteArray() {
+		throw new UnsupportedOperationException("FlushingBinaryCodec does not retain its contents");
+	}
+
+	/**
+	 * Always throws, since a {@code FlushingBinaryCodec} does not retain the data written to it.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public long write(WritableByteChannel channel) {
+		throw new UnsupportedOperationException("FlushingBinaryCodec does not retain its contents");
+	}
+
+	/**
+	 * Returns the total number of bytes written so far, including those that have not been flushed yet.
+	 * @return The number of bytes written.
+	 */
+	@Override
+	public int position() {
+		return (int) (flushed + buf.position());
+	}
+
+	/**
+	 * Writes everything in the window to the underlying channel.
+	 * @throws UncheckedIOException If an I/O error occurs while writing.
+	 */
+	@Override
+	public void flush() {
+		buf.flip();
+		try {
+			drain(buf);
+		} finally {
+			buf.clear();
+		}
+	}
+
+	private void drain(ByteBuffer src) {
+		try {
+			while (src.hasRemaining())
+				flushed += channel.write(src);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void writeBytes(byte[] value) {
+		if (value.length <= windowSize)
+			super.writeBytes(value);
+		else {
+			checkWrite(0);
+			flush();
+			drain(ByteBuffer.wrap(value));
+		}
+	}
+
+	@Override
+	public void writeBytes(ByteBuffer src) {
+		if (src.remaining() <= windowSize)
+			super.writeBytes(src);
+		else {
+			checkWrite(0);
+			flush();
+			drain(src.duplicate());
+		}
+	}
+
+	@Override
+	public void checkWrite(int length) {
+		if (!mode.canWrite()) throw new UnsupportedOperationException("Codec is read-only");
+
+		if (buf.remaining() < length) {
+			flush();
+			if (buf.capacity() < length || (buf.capacity() > windowSize && length <= windowSize))
+				buf = ByteBuffer.allocate(Math.max(length, windowSize)).order(buf.order());
+		}
+	}
+}
\ No newline at end of file
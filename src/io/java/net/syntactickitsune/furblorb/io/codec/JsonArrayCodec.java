@@ -202,16 +202,16 @@ public class JsonArrayCodec extends SequenceCodec {
 
 		final JsonElement next = next();
 		if (encodeZeroIdsAsNull && next.isJsonNull())
-			return JsonCodec.ZERO_UUID;
+			return EMPTY_UUID;
 
-		return UUID.fromString(next.getAsString());
+		return canonical(UUID.fromString(next.getAsString()));
 	}
 
 	@Override
 	public String readString() {
 		checkRead();
 		final JsonElement next = next();
-		return next == null ? "" : next.getAsString(); // Coerce to "".
+		return next == null ? "" : dedupe(next.getAsString()); // Coerce to "".
 	}
 
 	@Override
@@ -220,6 +220,12 @@ public class JsonArrayCodec extends SequenceCodec {
 		return readString().substring(0, length);
 	}
 
+	@Override
+	public <E extends Enum<E> & INamedEnum> E readEnum(Class<E> type) {
+		checkRead();
+		return JsonCodec.getConstantById(readString(), type, formatVersion());
+	}
+
 	@Override
 	public <E extends Enum<E> & INamedEnum> E readEnum(Class<E> type, Function<E, String> idFunction) {
 		checkRead();
@@ -363,7 +369,7 @@ public class JsonArrayCodec extends SequenceCodec {
 	public void writeUUID(UUID value) {
 		checkWrite();
 
-		if (encodeZeroIdsAsNull && value.equals(JsonCodec.ZERO_UUID))
+		if (encodeZeroIdsAsNull && value.equals(EMPTY_UUID))
 			wrapped.add(JsonNull.INSTANCE);
 		else
 			writeString(value.toString());
@@ -454,12 +460,14 @@ public class JsonArrayCodec extends SequenceCodec {
 	protected JsonCodec popObject(@Nullable JsonObject wrapped) {
 		final JsonCodec ret = wrapped == null ? new JsonCodec(externalFiles, formatVersion()) : new JsonCodec(wrapped, externalFiles, mode, formatVersion());
 		ret.encodeZeroIdsAsNull = encodeZeroIdsAsNull;
+		ret.strings = strings;
 		return ret;
 	}
 
 	protected JsonArrayCodec popArray(JsonArray wrapped) {
 		final JsonArrayCodec ret = new JsonArrayCodec(wrapped, externalFiles, mode, formatVersion());
 		ret.encodeZeroIdsAsNull = encodeZeroIdsAsNull;
+		ret.strings = strings;
 		return ret;
 	}
 }
\ No newline at end of file
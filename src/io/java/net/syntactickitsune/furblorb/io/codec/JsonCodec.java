@@ -41,8 +41,6 @@ import net.syntactickitsune.furblorb.io.TriConsumer;
  */
 public class JsonCodec extends Codec {
 
-	static final UUID ZERO_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
-
 	/**
 	 * The wrapped {@link JsonObject}.
 	 */
@@ -186,16 +184,22 @@ public class JsonCodec extends Codec {
 		Objects.requireNonNull(key, "key");
 
 		if (encodeZeroIdsAsNull && (!wrapped.has(key) || wrapped.get(key).isJsonNull()))
-			return ZERO_UUID;
+			return EMPTY_UUID;
 
-		return UUID.fromString(readString(key));
+		return canonical(UUID.fromString(readString(key)));
 	}
 
 	@Override
 	public String readString(@Nullable String key) {
 		checkRead();
 		final JsonElement elem = wrapped.get(Objects.requireNonNull(key, "key"));
-		return elem == null ? "" : elem.getAsString(); // Coerce to "".
+		return elem == null ? "" : dedupe(elem.getAsString()); // Coerce to "".
+	}
+
+	@Override
+	public <E extends Enum<E> & INamedEnum> E readEnum(@Nullable String key, Class<E> type) {
+		checkRead();
+		return getConstantById(readString(key), type, formatVersion());
 	}
 
 	@Override
@@ -204,13 +208,16 @@ public class JsonCodec extends Codec {
 		return getConstantById(readString(key), type, idFunction, formatVersion());
 	}
 
-	static <E extends Enum<E> & INamedEnum> E getConstantById(String id, Class<E> type, Function<E, String> idFunction, byte formatVersion) {
-		final E[] constants = type.getEnumConstants();
-		for (E e : constants)
-			if (e.formatVersion() <= formatVersion && id.equals(idFunction.apply(e)))
-				return e;
+	static <E extends Enum<E> & INamedEnum> E getConstantById(String id, Class<E> type, byte formatVersion) {
+		final E ret = EnumTable.of(type).byId(id, formatVersion);
+		if (ret == null) throw new FurblorbParsingException("No " + type.getName() + " with id '" + id + "'");
+		return ret;
+	}
 
-		throw new FurblorbParsingException("No " + type.getName() + " with id '" + id + "'");
+	static <E extends Enum<E> & INamedEnum> E getConstantById(String id, Class<E> type, Function<E, String> idFunction, byte formatVersion) {
+		final E ret = EnumTable.of(type).byId(id, idFunction, formatVersion);
+		if (ret == null) throw new FurblorbParsingException("No " + type.getName() + " with id '" + id + "'");
+		return ret;
 	}
 
 	@Override
@@ -338,7 +345,7 @@ public class JsonCodec extends Codec {
 		checkWrite();
 		Objects.requireNonNull(key, "key");
 
-		if (encodeZeroIdsAsNull && value.equals(ZERO_UUID))
+		if (encodeZeroIdsAsNull && value.equals(EMPTY_UUID))
 			wrapped.add(key, JsonNull.INSTANCE);
 		else
 			writeString(key, value.toString());
@@ -450,12 +457,14 @@ public class JsonCodec extends Codec {
 	protected JsonCodec popObject(@Nullable JsonObject wrapped) {
 		final JsonCodec ret = wrapped == null ? new JsonCodec(externalFiles, formatVersion()) : new JsonCodec(wrapped, externalFiles, mode, formatVersion());
 		ret.encodeZeroIdsAsNull = encodeZeroIdsAsNull;
+		ret.strings = strings;
 		return ret;
 	}
 
 	protected JsonArrayCodec popArray(JsonArray wrapped) {
 		final JsonArrayCodec ret = new JsonArrayCodec(wrapped, externalFiles, mode, formatVersion());
 		ret.encodeZeroIdsAsNull = encodeZeroIdsAsNull;
+		ret.strings = strings;
 		return ret;
 	}
 }
\ No newline at end of file
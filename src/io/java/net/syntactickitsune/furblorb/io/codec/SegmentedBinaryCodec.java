@@ -0,0 +1,118 @@
+package net.syntactickitsune.furblorb.io.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * {@code SegmentedBinaryCodec} is a write-only {@link BinaryCodec} that stores its contents as a series of
+ * fixed-size segments rather than as one contiguous buffer.
+ * When the current segment fills up, it is kept as-is and a fresh segment is started; bytes that have already been
+ * written are never copied again.
+ * This makes it well-suited for writing large amounts of data, such as multi-megabyte furballs.
+ * </p>
+ * <p>
+ * The contents can be retrieved either with {@link #toByteArray()} (which copies every segment exactly once)
+ * or written directly to a channel with {@link #write(WritableByteChannel)}, which hands all of the segments to
+ * {@link GatheringByteChannel GatheringByteChannels} in a single call.
+ * </p>
+ * <p>
+ * Note that {@link #buffer()} only returns the segment currently being written to.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see BinaryCodec
+ */
+public class SegmentedBinaryCodec extends BinaryCodec {
+
+	/**
+	 * The default size of each segment, in bytes.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+	private final List<ByteBuffer> segments = new ArrayList<>();
+	private final int segmentSize;
+	private int sealedBytes;
+
+	/**
+	 * Constructs a new {@code SegmentedBinaryCodec} with little-endian segments of the specified size.
+	 * @param segmentSize The size of each segment, in bytes. Individual writes larger than this receive a segment of their own.
+	 * @throws IllegalArgumentException If {@code segmentSize} is not positive.
+	 */
+	public SegmentedBinaryCodec(int segmentSize) {
+		super(ByteBuffer.allocate(checkSegmentSize(segmentSize)).order(ByteOrder.LITTLE_ENDIAN), CodecMode.WRITE_ONLY);
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Constructs a new {@code SegmentedBinaryCodec} with little-endian segments of {@linkplain #DEFAULT_SEGMENT_SIZE the default size}.
+	 */
+	public SegmentedBinaryCodec() {
+		this(DEFAULT_SEGMENT_SIZE);
+	}
+
+	private static int checkSegmentSize(int segmentSize) {
+		if (segmentSize <= 0) throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+		return segmentSize;
+	}
+
+	@Override
+	public byte[] toByteArray() {
+		final byte[] bytes = new byte[position()];
+
+		int offset = 0;
+		for (ByteBuffer segment : segments) {
+			segment.get(0, bytes, offset, segment.position());
+			offset += segment.position();
+		}
+
+		buf.get(0, bytes, offset, buf.position());
+		return bytes;
+	}
+
+	@Override
+	public int position() {
+		return sealedBytes + buf.position();
+	}
+
+	@Override
+	public long write(WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(channel, "channel");
+		final ByteBuffer[] srcs = new ByteBuffer[segments.size() + 1];
+		for (int i = 0; i < segments.size(); i++)
+			srcs[i] = segments.get(i).duplicate().flip();
+		srcs[srcs.length - 1] = buf.duplicate().flip();
+
+		long written = 0;
+		if (channel instanceof GatheringByteChannel gathering) {
+			final long total = position();
+			while (written < total)
+				written += gathering.write(srcs);
+		} else
+			for (ByteBuffer src : srcs)
+				while (src.hasRemaining())
+					written += channel.write(src);
+
+		return written;
+	}
+
+	@Override
+	public void checkWrite(int length) {
+		if (!mode.canWrite()) throw new UnsupportedOperationException("Codec is read-only");
+
+		if (buf.remaining() < length) {
+			if (buf.position() > 0) {
+				segments.add(buf);
+				sealedBytes += buf.position();
+			}
+
+			buf = ByteBuffer.allocate(Math.max(length, segmentSize)).order(buf.order());
+		}
+	}
+}
\ No newline at end of file
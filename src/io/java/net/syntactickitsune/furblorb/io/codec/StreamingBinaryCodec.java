@@ -0,0 +1,170 @@
+package net.syntactickitsune.furblorb.io.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * <p>
+ * {@code StreamingBinaryCodec} is a read-only {@link BinaryCodec} that pulls its data from a {@link ReadableByteChannel}
+ * (or an {@link InputStream}) on demand, rather than requiring all of it to be in memory up front.
+ * Bytes are read into a small window that is refilled as it is consumed, so values that straddle a refill
+ * (strings, byte arrays, 7-bit {@code int}s and so on) are read exactly as they would be from a complete buffer.
+ * </p>
+ * <p>
+ * The window only grows when a single value is larger than it, in which case it grows just enough to fit that value.
+ * As such, the working set of a {@code StreamingBinaryCodec} is bounded by the larger of its window size and the largest value read from it.
+ * </p>
+ * <p>
+ * The {@linkplain #buffer() backing buffer} is the current window, which is refilled (and occasionally replaced) as data is read.
+ * Since only the window is retained, {@link #toByteArray()} and {@link #write(WritableByteChannel)} are not supported.
+ * I/O errors from the underlying channel are rethrown as {@link UncheckedIOException UncheckedIOExceptions}.
+ * The channel is never closed by the {@code StreamingBinaryCodec}.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see BinaryCodec
+ */
+public class StreamingBinaryCodec extends BinaryCodec {
+
+	/**
+	 * The default size of the window, in bytes.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 8 * 1024;
+
+	private final ReadableByteChannel channel;
+	private long discarded;
+	private boolean eof;
+
+	/**
+	 * Constructs a new {@code StreamingBinaryCodec} reading from the specified channel using a little-endian window of the specified size.
+	 * @param channel The channel to read from.
+	 * @param windowSize The initial size of the window, in bytes.
+	 * @throws NullPointerException If {@code channel} is {@code null}.
+	 * @throws IllegalArgumentException If {@code windowSize} is not positive.
+	 */
+	public StreamingBinaryCodec(ReadableByteChannel channel, int windowSize) {
+		super(ByteBuffer.allocate(checkWindowSize(windowSize)).order(ByteOrder.LITTLE_ENDIAN).flip(), CodecMode.READ_ONLY);
+		this.channel = Objects.requireNonNull(channel, "channel");
+	}
+
+	/**
+	 * Constructs a new {@code StreamingBinaryCodec} reading from the specified channel using a little-endian window of
+	 * {@linkplain #DEFAULT_WINDOW_SIZE the default size}.
+	 * @param channel The channel to read from.
+	 * @throws NullPointerException If {@code channel} is {@code null}.
+	 */
+	public StreamingBinaryCodec(ReadableByteChannel channel) {
+		this(channel, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs a new {@code StreamingBinaryCodec} reading from the specified stream using a little-endian window of the specified size.
+	 * @param in The stream to read from.
+	 * @param windowSize The initial size of the window, in bytes.
+	 * @throws NullPointerException If {@code in} is {@code null}.
+	 * @throws IllegalArgumentException If {@code windowSize} is not positive.
+	 */
+	public StreamingBinaryCodec(InputStream in, int windowSize) {
+		this(Channels.newChannel(Objects.requireNonNull(in, "in")), windowSize);
+	}
+
+	/**
+	 * Constructs a new {@code StreamingBinaryCodec} reading from the specified stream using a little-endian window of
+	 * {@linkplain #DEFAULT_WINDOW_SIZE the default size}.
+	 * @param in The stream to read from.
+	 * @throws NullPointerException If {@code in} is {@code null}.
+	 */
+	public StreamingBinaryCodec(InputStream in) {
+		this(in, DEFAULT_WINDOW_SIZE);
+	}
+
+	private static int checkWindowSize(int windowSize) {
+		if (windowSize <= 0) throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+		return windowSize;
+	}
+
+	/**
+	 * Always throws, since a {@code StreamingBinaryCodec} does not retain the data it has read.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public byte[] toByteArray() {
+		throw new UnsupportedOperationException("StreamingBinaryCodec does not retain its contents");
+	}
+
+	/**
+	 * Always throws, since a {@code StreamingBinaryCodec} does not retain the data it has read.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public long write(WritableByteChannel channel) {
+		throw new UnsupportedOperationException("StreamingBinaryCodec does not retain its contents");
+	}
+
+	/**
+	 * Returns the total number of bytes consumed from the underlying channel so far.
+	 * @return The number of bytes read.
+	 */
+	@Override
+	public int position() {
+		return (int) (discarded + buf.position());
+	}
+
+	@Override
+	public boolean hasRemaining() {
+		if (!buf.hasRemaining()) fill(1);
+		return buf.hasRemaining();
+	}
+
+	@Override
+	public byte[] readRemainingBytes() {
+		checkRead();
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, buf.remaining()));
+		while (hasRemaining()) {
+			out.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+			buf.position(buf.limit());
+		}
+
+		return out.toByteArray();
+	}
+
+	@Override
+	public void checkRead(int length) {
+		checkRead();
+		if (buf.remaining() < length) fill(length);
+	}
+
+	private void fill(int length) {
+		if (eof) return;
+
+		discarded += buf.position();
+		if (buf.capacity() < length) {
+			final ByteBuffer old = buf;
+			buf = ByteBuffer.allocate(length).order(old.order());
+			buf.put(old);
+		} else
+			buf.compact();
+
+		try {
+			while (buf.position() < length) {
+				if (channel.read(buf) < 0) {
+					eof = true;
+					break;
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			buf.flip();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,780 @@
+package net.syntactickitsune.furblorb.io.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import net.syntactickitsune.furblorb.io.Decoder;
+import net.syntactickitsune.furblorb.io.ExternalFileHandler;
+import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.INamedEnum;
+import net.syntactickitsune.furblorb.io.SequenceDecoder;
+import net.syntactickitsune.furblorb.io.StringTable;
+
+/**
+ * <p>
+ * {@code StreamingJsonDecoder} reads a json document through the {@link Decoder} interface by pulling tokens from a {@link JsonReader},
+ * rather than first building a {@link JsonObject} tree like {@link JsonCodec} does.
+ * The document is decoded straight from its UTF-8 bytes (skipping the BOM, if present), so neither a tree nor a copy of the document as a {@code String} is kept in memory.
+ * </p>
+ * <p>
+ * Values are streamed when they are read in the same order they appear in the document, which is the case for everything written by Finmer and Furblorb.
+ * Out-of-order scalar values are buffered until they are asked for.
+ * Since a key can only be known to be absent once the end of its object is reached, a key that is not found before the next object or array value is assumed to be absent
+ * (otherwise a single missing optional value would force the rest of the object, including any large child objects, to be buffered).
+ * Should that assumption turn out to be wrong, the document is decoded again using a {@link JsonCodec}, so the result is the same either way.
+ * </p>
+ * <p>
+ * A {@code StreamingJsonDecoder} decodes a single document, once:
+ * <code><pre>
+ * FurballAsset asset = new StreamingJsonDecoder(json, externalFiles, formatVersion).read(FurballSerializables::read);</pre></code>
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see JsonCodec
+ */
+public final class StreamingJsonDecoder {
+
+	private final byte[] json;
+	private final int offset;
+
+	@Nullable
+	private final ExternalFileHandler externalFiles;
+
+	private final byte formatVersion;
+	private boolean encodeZeroIdsAsNull;
+	private boolean validate = true;
+
+	@Nullable
+	private StringTable strings;
+
+	@Nullable
+	private JsonReader in;
+
+	/**
+	 * Whether any key has been assumed to be absent, in which case a failure may be due to that assumption rather than the document.
+	 */
+	private boolean speculated;
+
+	/**
+	 * Constructs a new {@code StreamingJsonDecoder} with the specified parameters.
+	 * @param json The UTF-8 encoded json document, optionally preceded by a BOM.
+	 * @param externalFiles A handler for external files. Passing in {@code null} will cause the {@code StreamingJsonDecoder} to read them inline.
+	 * @param formatVersion The format version to decode with.
+	 * @throws NullPointerException If {@code json} is {@code null}.
+	 */
+	public StreamingJsonDecoder(byte[] json, @Nullable ExternalFileHandler externalFiles, byte formatVersion) {
+		this.json = Objects.requireNonNull(json, "json");
+		offset = json.length >= 3 && json[0] == (byte) 0xEF && json[1] == (byte) 0xBB && json[2] == (byte) 0xBF ? 3 : 0; // Skip the BOM, if present.
+		this.externalFiles = externalFiles;
+		this.formatVersion = formatVersion;
+	}
+
+	public byte formatVersion() {
+		return formatVersion;
+	}
+
+	public boolean encodeZeroIdsAsNull() {
+		return encodeZeroIdsAsNull;
+	}
+
+	public StreamingJsonDecoder setEncodeZeroIdsAsNull(boolean value) {
+		encodeZeroIdsAsNull = value;
+		return this;
+	}
+
+	public boolean validate() {
+		return validate;
+	}
+
+	public StreamingJsonDecoder setValidate(boolean value) {
+		validate = value;
+		return this;
+	}
+
+	public @Nullable StringTable stringTable() {
+		return strings;
+	}
+
+	public StreamingJsonDecoder setStringTable(@Nullable StringTable value) {
+		strings = value;
+		return this;
+	}
+
+	private String dedupe(String value) {
+		if (value.isEmpty()) return "";
+		return strings == null ? value : strings.intern(value);
+	}
+
+	/**
+	 * Decodes the document's root object using the specified reader.
+	 * @param <T> The type of the decoded value.
+	 * @param reader The function to decode the root object with.
+	 * @return The decoded value.
+	 * @throws JsonSyntaxException If the document is not valid json.
+	 * @throws IllegalStateException If the document has already been read.
+	 * @throws NullPointerException If {@code reader} is {@code null}.
+	 */
+	public <T> T read(Function<Decoder, T> reader) {
+		Objects.requireNonNull(reader, "reader");
+		if (in != null) throw new IllegalStateException("Document has already been read");
+
+		in = new JsonReader(newReader());
+		in.setStrictness(Strictness.LENIENT); // Matches JsonParser.
+
+		try {
+			in.beginObject();
+			final ObjectDecoder root = new ObjectDecoder();
+			final T ret = reader.apply(root);
+			root.finish();
+			return ret;
+		} catch (IOException e) {
+			throw malformed(e);
+		} catch (RuntimeException e) {
+			if (!speculated) throw e;
+		}
+
+		// Some key was assumed to be absent when it wasn't (or at least, that may be why decoding failed), so fall back to the tree.
+		final JsonCodec codec = new JsonCodec(JsonParser.parseReader(newReader()).getAsJsonObject(), externalFiles, CodecMode.READ_ONLY, formatVersion);
+		codec.setEncodeZeroIdsAsNull(encodeZeroIdsAsNull);
+		codec.setValidate(validate);
+		codec.setStringTable(strings);
+		return reader.apply(codec);
+	}
+
+	private Reader newReader() {
+		return new InputStreamReader(new ByteArrayInputStream(json, offset, json.length - offset), StandardCharsets.UTF_8);
+	}
+
+	private static JsonSyntaxException malformed(IOException e) {
+		return new JsonSyntaxException(e);
+	}
+
+	private byte nextByte() throws IOException {
+		return (byte) in.nextInt();
+	}
+
+	private byte[] nextByteArray() throws IOException {
+		byte[] ret = new byte[16];
+		int size = 0;
+
+		in.beginArray();
+		while (in.hasNext()) {
+			if (size == ret.length) ret = Arrays.copyOf(ret, size * 2);
+			ret[size++] = nextByte();
+		}
+		in.endArray();
+
+		return Arrays.copyOf(ret, size);
+	}
+
+	private float nextFloat() throws IOException {
+		return Float.parseFloat(in.nextString()); // Parsing as a double first could round differently.
+	}
+
+	private double nextDouble() throws IOException {
+		return Double.parseDouble(in.nextString());
+	}
+
+	private UUID nextUUID() throws IOException {
+		if (encodeZeroIdsAsNull && in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return Codec.EMPTY_UUID;
+		}
+
+		return Codec.canonical(UUID.fromString(in.nextString()));
+	}
+
+	private <T> T nextObject(Function<Decoder, T> reader) throws IOException {
+		in.beginObject();
+		final ObjectDecoder dec = new ObjectDecoder();
+		final T ret = reader.apply(dec);
+		dec.finish();
+		return ret;
+	}
+
+	private <T> List<T> nextList(Function<SequenceDecoder, T> reader) throws IOException {
+		in.beginArray();
+		final ArrayDecoder dec = new ArrayDecoder();
+		final ArrayList<T> ret = new ArrayList<>();
+
+		while (in.hasNext()) {
+			final int index = dec.index;
+			ret.add(reader.apply(dec));
+			if (dec.index == index) throw new IllegalStateException("List element reader did not read anything");
+		}
+
+		in.endArray();
+		ret.trimToSize(); // Don't retain the slack left over from growing.
+		return ret;
+	}
+
+	/**
+	 * The {@link Decoder} for a single json object.
+	 * Scalar values that are skipped over while looking for a key are buffered in a {@link JsonObject}, which (via a {@link JsonCodec}) also handles absent keys.
+	 */
+	private final class ObjectDecoder implements Decoder {
+
+		private final JsonObject buffered = new JsonObject();
+
+		@Nullable
+		private JsonCodec tree;
+
+		/**
+		 * The name of the value at the head of the reader, if its name has been read but its value has not.
+		 */
+		@Nullable
+		private String pending;
+
+		@Nullable
+		private List<String> assumedAbsent;
+
+		/**
+		 * Positions the reader at the value of the specified key if it can be streamed.
+		 * @param key The key.
+		 * @return {@code true} if the reader is now positioned at the key's value, or {@code false} if the key was buffered or is absent.
+		 */
+		private boolean find(@Nullable String key) throws IOException {
+			Objects.requireNonNull(key, "key");
+
+			if (pending != null) {
+				if (pending.equals(key)) return true;
+				if (!bufferPending()) return assumeAbsent(key);
+			}
+
+			if (buffered.has(key)) return false;
+
+			while (in.hasNext()) {
+				pending = checkNotAssumedAbsent(in.nextName());
+				if (pending.equals(key)) return true;
+				if (!bufferPending()) return assumeAbsent(key);
+			}
+
+			return false;
+		}
+
+		/**
+		 * Like {@link #find(String)}, but also consumes the key (so the value must then be read from the reader).
+		 */
+		private boolean take(@Nullable String key) throws IOException {
+			if (!find(key)) return false;
+
+			pending = null;
+			return true;
+		}
+
+		private boolean has(@Nullable String key) throws IOException {
+			return find(key) || buffered.has(key);
+		}
+
+		private boolean bufferPending() throws IOException {
+			final JsonToken next = in.peek();
+			if (next == JsonToken.BEGIN_OBJECT || next == JsonToken.BEGIN_ARRAY) return false;
+
+			buffered.add(pending, JsonParser.parseReader(in));
+			pending = null;
+			return true;
+		}
+
+		private boolean assumeAbsent(String key) {
+			if (assumedAbsent == null) assumedAbsent = new ArrayList<>(2);
+			assumedAbsent.add(key);
+			speculated = true;
+			return false;
+		}
+
+		private String checkNotAssumedAbsent(String name) {
+			if (assumedAbsent != null && assumedAbsent.contains(name))
+				throw new FurblorbParsingException("Key " + name + " was assumed to be absent");
+			return name;
+		}
+
+		private JsonCodec tree() {
+			if (tree == null) {
+				tree = new JsonCodec(buffered, externalFiles, CodecMode.READ_ONLY, formatVersion);
+				tree.setEncodeZeroIdsAsNull(encodeZeroIdsAsNull);
+				tree.setValidate(validate);
+				tree.setStringTable(strings);
+			}
+
+			return tree;
+		}
+
+		/**
+		 * Skips the rest of the object, including its end.
+		 */
+		private void finish() throws IOException {
+			if (pending != null) {
+				in.skipValue();
+				pending = null;
+			}
+
+			while (in.hasNext()) {
+				checkNotAssumedAbsent(in.nextName());
+				in.skipValue();
+			}
+
+			in.endObject();
+		}
+
+		@Override
+		public boolean readCompressedTypes() {
+			return false;
+		}
+
+		@Override
+		public byte formatVersion() {
+			return formatVersion;
+		}
+
+		@Override
+		public boolean validate() {
+			return validate;
+		}
+
+		@Override
+		public @Nullable StringTable stringTable() {
+			return strings;
+		}
+
+		@Override
+		public byte readByte(@Nullable String key) {
+			try {
+				return take(key) ? nextByte() : tree().readByte(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public byte[] readByteArray(@Nullable String key) {
+			try {
+				return take(key) ? nextByteArray() : tree().readByteArray(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public byte @Nullable [] readOptionalByteArray(@Nullable String key) {
+			try {
+				return take(key) ? nextByteArray() : tree().readOptionalByteArray(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public boolean readBoolean(@Nullable String key) {
+			try {
+				return take(key) ? in.nextBoolean() : tree().readBoolean(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public short readShort(@Nullable String key) {
+			try {
+				return take(key) ? (short) in.nextInt() : tree().readShort(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public int readInt(@Nullable String key) {
+			try {
+				return take(key) ? in.nextInt() : tree().readInt(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public long readLong(@Nullable String key) {
+			try {
+				return take(key) ? in.nextLong() : tree().readLong(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public float readFloat(@Nullable String key) {
+			try {
+				return take(key) ? nextFloat() : tree().readFloat(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public double readDouble(@Nullable String key) {
+			try {
+				return take(key) ? nextDouble() : tree().readDouble(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public UUID readUUID(@Nullable String key) {
+			try {
+				return take(key) ? nextUUID() : tree().readUUID(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public String readString(@Nullable String key) {
+			try {
+				return take(key) ? dedupe(in.nextString()) : tree().readString(key);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public <E extends Enum<E> & INamedEnum> E readEnum(@Nullable String key, Class<E> type) {
+			return JsonCodec.getConstantById(readString(key), type, formatVersion);
+		}
+
+		@Override
+		public <E extends Enum<E> & INamedEnum> E readEnum(@Nullable String key, Class<E> type, Function<E, String> idFunction) {
+			return JsonCodec.getConstantById(readString(key), type, idFunction, formatVersion);
+		}
+
+		@Override
+		public <T> List<T> readObjectList(@Nullable String key, Function<Decoder, T> reader) {
+			return readListOf(key, dec -> dec.readObject(reader));
+		}
+
+		@Override
+		public <T> List<@Nullable T> readOptionalObjectList(@Nullable String key, Function<Decoder, T> reader) {
+			return readListOf(key, dec -> dec.readOptionalObject(reader));
+		}
+
+		@Override
+		public <T> List<T> readListOf(@Nullable String key, Function<SequenceDecoder, T> reader) {
+			try {
+				return take(key) ? nextList(reader) : tree().readListOf(key, reader);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public <T> T readObject(@Nullable String key, Function<Decoder, T> reader) {
+			try {
+				return take(key) ? nextObject(reader) : tree().readObject(key, reader);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		@Nullable
+		public <T> T readOptionalObject(@Nullable String key, Function<Decoder, T> reader) {
+			try {
+				return take(key) ? nextObject(reader) : tree().readOptionalObject(key, reader);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public <T> T readExternal(@Nullable String key, BiFunction<Decoder, String, T> reader, Function<byte[], T> externalReader) {
+			if (externalFiles == null || !externalFiles.handles(key))
+				return reader.apply(this, key);
+
+			return externalReader.apply(externalFiles.readExternalFile(key));
+		}
+
+		@Override
+		@Nullable
+		public <T> T readExternalOptional(@Nullable String key, BiFunction<Decoder, String, T> reader, Function<byte[], T> externalReader) {
+			if (externalFiles == null || !externalFiles.handles(key))
+				try {
+					return has(key) ? reader.apply(this, key) : null;
+				} catch (IOException e) {
+					throw malformed(e);
+				}
+
+			final byte[] contents = externalFiles.readExternalFile(key);
+			return contents == null ? null : externalReader.apply(contents);
+		}
+
+		@Override
+		public void assertDoesNotExist(String key, String message) throws FurblorbParsingException {
+			Objects.requireNonNull(key, "key");
+			Objects.requireNonNull(message, "message");
+
+			try {
+				if (validate && has(key))
+					throw new FurblorbParsingException("Assertion \"" + key + " = null\" failed: " + message);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+	}
+
+	/**
+	 * The {@link SequenceDecoder} for a single json array.
+	 */
+	private final class ArrayDecoder implements SequenceDecoder {
+
+		/**
+		 * The number of elements read so far.
+		 */
+		private int index;
+
+		private void checkRemaining() throws IOException {
+			if (!in.hasNext()) throw new IllegalStateException("End of data");
+			index++;
+		}
+
+		@Override
+		public boolean hasRemaining() {
+			try {
+				return in.hasNext();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public boolean readCompressedTypes() {
+			return false;
+		}
+
+		@Override
+		public byte formatVersion() {
+			return formatVersion;
+		}
+
+		@Override
+		public boolean validate() {
+			return validate;
+		}
+
+		@Override
+		public @Nullable StringTable stringTable() {
+			return strings;
+		}
+
+		@Override
+		public void assertDoesNotExist(String key, String message) {}
+
+		@Override
+		public byte readByte() {
+			try {
+				checkRemaining();
+				return nextByte();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public byte[] readBytes(byte[] array) {
+			final byte[] a2 = readByteArray();
+			System.arraycopy(a2, 0, array, 0, array.length);
+			return array;
+		}
+
+		@Override
+		public byte[] readByteArray() {
+			try {
+				checkRemaining();
+				return nextByteArray();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public byte @Nullable [] readOptionalByteArray() {
+			try {
+				checkRemaining();
+				if (in.peek() == JsonToken.NULL) {
+					in.nextNull();
+					return null;
+				}
+
+				return nextByteArray();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public boolean readBoolean() {
+			try {
+				checkRemaining();
+				return in.nextBoolean();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public char readChar() {
+			return readString().charAt(0);
+		}
+
+		@Override
+		public short readShort() {
+			try {
+				checkRemaining();
+				return (short) in.nextInt();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public int readInt() {
+			try {
+				checkRemaining();
+				return in.nextInt();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public int read7BitInt() {
+			return readInt();
+		}
+
+		@Override
+		public long readLong() {
+			try {
+				checkRemaining();
+				return in.nextLong();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public float readFloat() {
+			try {
+				checkRemaining();
+				return nextFloat();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public double readDouble() {
+			try {
+				checkRemaining();
+				return nextDouble();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public UUID readUUID() {
+			try {
+				checkRemaining();
+				return nextUUID();
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public String readString() {
+			try {
+				checkRemaining();
+				return dedupe(in.nextString());
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public String readFixedLengthString(int length) {
+			return readString().substring(0, length);
+		}
+
+		@Override
+		public <E extends Enum<E> & INamedEnum> E readEnum(Class<E> type) {
+			return JsonCodec.getConstantById(readString(), type, formatVersion);
+		}
+
+		@Override
+		public <E extends Enum<E> & INamedEnum> E readEnum(Class<E> type, Function<E, String> idFunction) {
+			return JsonCodec.getConstantById(readString(), type, idFunction, formatVersion);
+		}
+
+		@Override
+		public <T> List<T> readObjectList(Function<Decoder, T> reader) {
+			return readListOf(dec -> dec.readObject(reader));
+		}
+
+		@Override
+		public <T> List<@Nullable T> readOptionalObjectList(Function<Decoder, T> reader) {
+			return readListOf(dec -> dec.readOptionalObject(reader));
+		}
+
+		@Override
+		public <T> List<T> readListOf(Function<SequenceDecoder, T> reader) {
+			try {
+				checkRemaining();
+				return nextList(reader);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public <T> T readObject(Function<Decoder, T> reader) {
+			try {
+				checkRemaining();
+				return nextObject(reader);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+
+		@Override
+		public <T> @Nullable T readOptionalObject(Function<Decoder, T> reader) {
+			try {
+				checkRemaining();
+				if (in.peek() == JsonToken.NULL) {
+					in.nextNull();
+					return null;
+				}
+
+				return nextObject(reader);
+			} catch (IOException e) {
+				throw malformed(e);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,522 @@
+package net.syntactickitsune.furblorb.io.codec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.gson.JsonObject;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonWriter;
+
+import net.syntactickitsune.furblorb.io.Encoder;
+import net.syntactickitsune.furblorb.io.ExternalFileHandler;
+import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.INamedEnum;
+import net.syntactickitsune.furblorb.io.SequenceEncoder;
+import net.syntactickitsune.furblorb.io.TriConsumer;
+
+/**
+ * <p>
+ * {@code StreamingJsonEncoder} writes a json document through the {@link Encoder} interface by pushing tokens straight to a {@link JsonWriter},
+ * rather than first building a {@link JsonObject} tree like {@link JsonCodec} does.
+ * It is the encoding counterpart to {@link StreamingJsonDecoder}.
+ * </p>
+ * <p>
+ * The output is the same as writing with a {@link JsonCodec} and then serializing its tree to the same {@code JsonWriter}
+ * (with {@code null}s serialized and HTML escaping disabled), as long as no key is written twice within the same object.
+ * Formatting, such as indentation and line endings, is up to the {@code JsonWriter}.
+ * </p>
+ * <p>
+ * A {@code StreamingJsonEncoder} writes a single document, once:
+ * <code><pre>
+ * new StreamingJsonEncoder(jsonWriter, externalFiles, formatVersion).write(asset, FurballAsset::writeWithId);</pre></code>
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see JsonCodec
+ * @see StreamingJsonDecoder
+ */
+public final class StreamingJsonEncoder {
+
+	private final JsonWriter out;
+
+	@Nullable
+	private final ExternalFileHandler externalFiles;
+
+	private final byte formatVersion;
+	private boolean encodeZeroIdsAsNull;
+	private boolean validate = true;
+	private boolean written;
+
+	private final ObjectEncoder objectEncoder = new ObjectEncoder();
+	private final ArrayEncoder arrayEncoder = new ArrayEncoder();
+
+	/**
+	 * Constructs a new {@code StreamingJsonEncoder} with the specified parameters.
+	 * @param out The {@code JsonWriter} to write to. Its serialization settings are adjusted to match those used for Finmer projects, but its formatting is left alone.
+	 * @param externalFiles A handler for external files. Passing in {@code null} will cause the {@code StreamingJsonEncoder} to write them inline.
+	 * @param formatVersion The format version to encode with.
+	 * @throws NullPointerException If {@code out} is {@code null}.
+	 */
+	public StreamingJsonEncoder(JsonWriter out, @Nullable ExternalFileHandler externalFiles, byte formatVersion) {
+		this.out = Objects.requireNonNull(out, "out");
+		this.externalFiles = externalFiles;
+		this.formatVersion = formatVersion;
+
+		// Matches Gson.toJson(JsonElement, JsonWriter), as used by FinmerProjectWriter.
+		out.setStrictness(Strictness.LENIENT);
+		out.setHtmlSafe(false);
+		out.setSerializeNulls(true);
+	}
+
+	public byte formatVersion() {
+		return formatVersion;
+	}
+
+	public boolean encodeZeroIdsAsNull() {
+		return encodeZeroIdsAsNull;
+	}
+
+	public StreamingJsonEncoder setEncodeZeroIdsAsNull(boolean value) {
+		encodeZeroIdsAsNull = value;
+		return this;
+	}
+
+	public boolean validate() {
+		return validate;
+	}
+
+	public StreamingJsonEncoder setValidate(boolean value) {
+		validate = value;
+		return this;
+	}
+
+	/**
+	 * Writes the specified value as the document's root object.
+	 * The {@code JsonWriter} is flushed afterwards, but not closed.
+	 * @param <T> The type of the value.
+	 * @param value The value to write.
+	 * @param writer The function to write the value with.
+	 * @throws UncheckedIOException If an I/O error occurs while writing.
+	 * @throws IllegalStateException If the document has already been written.
+	 * @throws NullPointerException If {@code writer} is {@code null}.
+	 */
+	public <T> void write(T value, BiConsumer<T, Encoder> writer) {
+		Objects.requireNonNull(writer, "writer");
+		if (written) throw new IllegalStateException("Document has already been written");
+		written = true;
+
+		try {
+			out.beginObject();
+			writer.accept(value, objectEncoder);
+			out.endObject();
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeUUID(UUID value) throws IOException {
+		if (encodeZeroIdsAsNull && value.equals(Codec.EMPTY_UUID))
+			out.nullValue();
+		else
+			out.value(value.toString());
+	}
+
+	private void writeByteArray(byte[] value) throws IOException {
+		out.beginArray();
+		for (byte b : value) out.value(b);
+		out.endArray();
+	}
+
+	private <T> void writeObject(T value, BiConsumer<T, Encoder> writer) throws IOException {
+		out.beginObject();
+		writer.accept(value, objectEncoder);
+		out.endObject();
+	}
+
+	private <T> void writeList(Collection<T> value, BiConsumer<SequenceEncoder, T> writer, boolean requireNonNull) throws IOException {
+		out.beginArray();
+		for (T v : value)
+			writer.accept(arrayEncoder, requireNonNull ? Objects.requireNonNull(v) : v);
+		out.endArray();
+	}
+
+	/**
+	 * The {@link Encoder} for json objects.
+	 * Like {@link JsonCodec}, empty strings and {@code null} optional values are left out entirely.
+	 */
+	private final class ObjectEncoder implements Encoder {
+
+		@Override
+		public boolean writeCompressedTypes() {
+			return false;
+		}
+
+		@Override
+		public byte formatVersion() {
+			return formatVersion;
+		}
+
+		@Override
+		public boolean validate() {
+			return validate;
+		}
+
+		private JsonWriter name(@Nullable String key) throws IOException {
+			return out.name(Objects.requireNonNull(key, "key"));
+		}
+
+		@Override
+		public void writeByte(@Nullable String key, byte value) {
+			try {
+				name(key).value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeByteArray(@Nullable String key, byte[] value) {
+			try {
+				name(key);
+				StreamingJsonEncoder.this.writeByteArray(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeOptionalByteArray(@Nullable String key, byte @Nullable [] value) {
+			if (value != null)
+				writeByteArray(key, value);
+		}
+
+		@Override
+		public void writeBoolean(@Nullable String key, boolean value) {
+			try {
+				name(key).value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeShort(@Nullable String key, short value) {
+			try {
+				name(key).value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeInt(@Nullable String key, int value) {
+			try {
+				name(key).value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeLong(@Nullable String key, long value) {
+			try {
+				name(key).value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeFloat(@Nullable String key, float value) {
+			try {
+				name(key).value((Number) value); // Same formatting as a JsonPrimitive.
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeDouble(@Nullable String key, double value) {
+			try {
+				name(key).value((Number) value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeUUID(@Nullable String key, UUID value) {
+			try {
+				name(key);
+				StreamingJsonEncoder.this.writeUUID(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeString(@Nullable String key, String value) {
+			Objects.requireNonNull(key, "key");
+			Objects.requireNonNull(value, "value");
+			if (value.isEmpty()) return;
+
+			try {
+				out.name(key).value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public <E extends Enum<E> & INamedEnum> void writeEnum(@Nullable String key, E value, Function<E, String> idFunction) {
+			Objects.requireNonNull(key, "key");
+			if (value.formatVersion() > formatVersion) throw new IllegalArgumentException("Cannot encode " + value + " for format version " + formatVersion + " as it is only available in " + value.formatVersion() + " and higher");
+			writeString(key, Objects.requireNonNull(idFunction.apply(value), value.getClass().getSimpleName() + " violated INamedEnum contract"));
+		}
+
+		@Override
+		public <T> void writeObjectList(@Nullable String key, Collection<T> value, BiConsumer<T, Encoder> writer) {
+			writeListOf(key, value, (enc, v) -> enc.writeObject(v, writer));
+		}
+
+		@Override
+		public <T> void writeOptionalObjectList(@Nullable String key, Collection<@Nullable T> value, BiConsumer<T, Encoder> writer) {
+			writeListOf(key, value, (enc, v) -> enc.writeOptionalObject(v, writer));
+		}
+
+		@Override
+		public <T> void writeListOf(@Nullable String key, Collection<T> value, BiConsumer<SequenceEncoder, T> writer) {
+			try {
+				name(key);
+				writeList(value, writer, true);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public <T> void writeObject(@Nullable String key, T value, BiConsumer<T, Encoder> writer) {
+			try {
+				name(key);
+				StreamingJsonEncoder.this.writeObject(value, writer);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public <T> void writeOptionalObject(@Nullable String key, @Nullable T value, BiConsumer<T, Encoder> writer) {
+			if (value != null)
+				writeObject(key, value, writer);
+		}
+
+		@Override
+		public <T> void writeExternal(@Nullable String key, T value, TriConsumer<String, T, Encoder> writer, Function<T, byte[]> externalWriter) {
+			if (externalFiles == null || !externalFiles.handles(key)) {
+				writer.accept(key, value, this);
+				return;
+			}
+
+			final byte[] b = externalWriter.apply(value);
+			if (b == null) return;
+
+			externalFiles.writeExternalFile(key, b);
+		}
+
+		@Override
+		public <T> void writeExternalOptional(@Nullable String key, @Nullable T value, TriConsumer<String, T, Encoder> writer, Function<T, byte[]> externalWriter) {
+			if (value != null)
+				writeExternal(key, value, writer, externalWriter);
+		}
+	}
+
+	/**
+	 * The {@link SequenceEncoder} for json arrays.
+	 * Like {@link JsonArrayCodec}, {@code null} optional values are written as json {@code null}s.
+	 */
+	private final class ArrayEncoder implements SequenceEncoder {
+
+		@Override
+		public boolean writeCompressedTypes() {
+			return false;
+		}
+
+		@Override
+		public byte formatVersion() {
+			return formatVersion;
+		}
+
+		@Override
+		public boolean validate() {
+			return validate;
+		}
+
+		@Override
+		public void writeByte(byte value) {
+			try {
+				out.value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeBytes(byte[] value) {
+			try {
+				StreamingJsonEncoder.this.writeByteArray(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeByteArray(byte[] value) {
+			writeBytes(value);
+		}
+
+		@Override
+		public void writeOptionalByteArray(byte @Nullable [] value) {
+			if (value != null)
+				writeBytes(value);
+			else
+				writeNull();
+		}
+
+		private void writeNull() {
+			try {
+				out.nullValue();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeBoolean(boolean value) {
+			try {
+				out.value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeChar(char value) {
+			writeString(String.valueOf(value));
+		}
+
+		@Override
+		public void writeShort(short value) {
+			writeLong(value);
+		}
+
+		@Override
+		public void writeInt(int value) {
+			writeLong(value);
+		}
+
+		@Override
+		public void write7BitInt(int value) {
+			writeLong(value);
+		}
+
+		@Override
+		public void writeLong(long value) {
+			try {
+				out.value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeFloat(float value) {
+			try {
+				out.value((Number) value); // Same formatting as a JsonPrimitive.
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeDouble(double value) {
+			try {
+				out.value((Number) value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeUUID(UUID value) {
+			try {
+				StreamingJsonEncoder.this.writeUUID(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeString(String value) {
+			try {
+				out.value(value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void writeFixedLengthString(String value) {
+			writeString(value);
+		}
+
+		@Override
+		public <E extends Enum<E> & INamedEnum> void writeEnum(E value, Function<E, String> idFunction) {
+			if (value.formatVersion() > formatVersion) throw new FurblorbParsingException("Cannot encode " + value + " for format version " + formatVersion + " as it is only available in " + value.formatVersion() + " and higher");
+			writeString(idFunction.apply(value));
+		}
+
+		@Override
+		public <T> void writeObjectList(Collection<T> value, BiConsumer<T, Encoder> writer) {
+			writeListOf(value, (enc, v) -> enc.writeObject(v, writer));
+		}
+
+		@Override
+		public <T> void writeOptionalObjectList(Collection<@Nullable T> value, BiConsumer<T, Encoder> writer) {
+			writeListOf(value, (enc, v) -> enc.writeOptionalObject(v, writer));
+		}
+
+		@Override
+		public <T> void writeListOf(Collection<T> value, BiConsumer<SequenceEncoder, T> writer) {
+			try {
+				writeList(value, writer, false);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public <T> void writeObject(T value, BiConsumer<T, Encoder> writer) {
+			try {
+				StreamingJsonEncoder.this.writeObject(value, writer);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public <T> void writeOptionalObject(@Nullable T value, BiConsumer<T, Encoder> writer) {
+			if (value != null)
+				writeObject(value, writer);
+			else
+				writeNull();
+		}
+	}
+}
\ No newline at end of file
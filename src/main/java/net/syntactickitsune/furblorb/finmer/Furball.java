@@ -44,8 +44,9 @@ public final class Furball {
 
 	/**
 	 * The list containing the furball's assets.
+	 * Assets read {@linkplain FurballReader#setLazy(boolean) lazily} are only decoded once they are retrieved from this list.
 	 */
-	public final List<FurballAsset> assets = new ArrayList<>();
+	public final FurballAssetList assets = new FurballAssetList();
 
 	/**
 	 * Constructs a new {@code Furball}.
@@ -0,0 +1,216 @@
+package net.syntactickitsune.furblorb.finmer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
+import net.syntactickitsune.furblorb.finmer.io.EncodedAsset;
+import net.syntactickitsune.furblorb.finmer.io.FurballReader;
+import net.syntactickitsune.furblorb.finmer.io.FurballWriter;
+
+/**
+ * <p>
+ * The list holding a {@link Furball}'s assets.
+ * </p>
+ * <p>
+ * In addition to ordinary {@link FurballAsset FurballAssets}, a {@code FurballAssetList} can hold {@linkplain EncodedAsset encoded assets},
+ * such as those produced by {@link FurballReader} in {@linkplain FurballReader#setLazy(boolean) lazy mode}.
+ * An encoded asset is transparently decoded (and replaced by the decoded asset) the first time it is retrieved from the list,
+ * so to users of the {@link List} interface a {@code FurballAssetList} is indistinguishable from an {@link ArrayList}.
+ * </p>
+ * <p>
+ * The ID, file name and type of each asset are available through {@link #id(int)}, {@link #filename(int)} and {@link #type(int)} without decoding it,
+ * and {@linkplain #sort(Comparator) sorting} the list in its natural order does not decode anything either.
+ * Assets that are never decoded (or that {@linkplain FurballAsset#encoded() retain their encoded form}) are written back out verbatim by {@link FurballWriter}.
+ * </p>
+ * <p>
+ * Since retrieving an asset may modify the list, {@code FurballAssetList} is not safe for concurrent use, even if only reading from it.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ */
+public final class FurballAssetList extends AbstractList<FurballAsset> implements RandomAccess {
+
+	/**
+	 * Each element is either a {@link FurballAsset} or an {@link EncodedAsset}.
+	 */
+	private final List<Object> elements = new ArrayList<>();
+
+	/**
+	 * Constructs a new, empty {@code FurballAssetList}.
+	 */
+	public FurballAssetList() {}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * Returns the asset at the specified position in this list, decoding it first if necessary.
+	 * @param index The index of the asset.
+	 * @return The asset.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 * @throws net.syntactickitsune.furblorb.io.FurblorbParsingException If the asset needs to be decoded, but cannot be.
+	 */
+	@Override
+	public FurballAsset get(int index) {
+		final Object element = elements.get(index);
+		if (element instanceof EncodedAsset encoded) {
+			final FurballAsset asset = encoded.decode();
+			elements.set(index, asset);
+			return asset;
+		}
+
+		return (FurballAsset) element;
+	}
+
+	@Override
+	public FurballAsset set(int index, FurballAsset element) {
+		return decode(elements.set(index, Objects.requireNonNull(element, "element")));
+	}
+
+	@Override
+	public void add(int index, FurballAsset element) {
+		elements.add(index, Objects.requireNonNull(element, "element"));
+		modCount++;
+	}
+
+	@Override
+	public FurballAsset remove(int index) {
+		final Object element = elements.remove(index);
+		modCount++;
+		return decode(element);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		elements.subList(fromIndex, toIndex).clear();
+		modCount++;
+	}
+
+	/**
+	 * Removes the asset at the specified position in this list without decoding it.
+	 * @param index The index of the asset.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public void discard(int index) {
+		removeRange(index, index + 1);
+	}
+
+	/**
+	 * Appends the specified encoded asset to the end of this list.
+	 * It will be decoded when it is first retrieved.
+	 * @param asset The encoded asset.
+	 * @throws NullPointerException If {@code asset} is {@code null}.
+	 */
+	public void addEncoded(EncodedAsset asset) {
+		elements.add(Objects.requireNonNull(asset, "asset"));
+		modCount++;
+	}
+
+	/**
+	 * Replaces the asset at the specified position in this list with the specified encoded asset.
+	 * Unlike {@link #set(int, FurballAsset)}, the replaced asset is not decoded.
+	 * @param index The index of the asset to replace.
+	 * @param asset The encoded asset.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 * @throws NullPointerException If {@code asset} is {@code null}.
+	 */
+	public void setEncoded(int index, EncodedAsset asset) {
+		elements.set(index, Objects.requireNonNull(asset, "asset"));
+	}
+
+	/**
+	 * Returns the encoded form of the asset at the specified position in this list, without decoding it.
+	 * This is either the asset itself, if it has not been decoded yet, or its {@linkplain FurballAsset#encoded() retained encoded form}.
+	 * @param index The index of the asset.
+	 * @return The encoded asset, or {@code null} if the asset has no (accurate) encoded form.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	@Nullable
+	public EncodedAsset encoded(int index) {
+		final Object element = elements.get(index);
+		return element instanceof EncodedAsset encoded ? encoded : ((FurballAsset) element).encoded();
+	}
+
+	/**
+	 * Returns whether the asset at the specified position in this list has been decoded.
+	 * @param index The index of the asset.
+	 * @return {@code true} if the asset is held as a {@link FurballAsset}, {@code false} if it is still encoded.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public boolean isMaterialized(int index) {
+		return !(elements.get(index) instanceof EncodedAsset);
+	}
+
+	/**
+	 * Returns the ID of the asset at the specified position in this list, without decoding it.
+	 * @param index The index of the asset.
+	 * @return The ID.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public UUID id(int index) {
+		return idOf(elements.get(index));
+	}
+
+	/**
+	 * Returns the file name of the asset at the specified position in this list, without decoding it.
+	 * @param index The index of the asset.
+	 * @return The file name.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public String filename(int index) {
+		return filenameOf(elements.get(index));
+	}
+
+	/**
+	 * Returns the type of the asset at the specified position in this list, without decoding it.
+	 * @param index The index of the asset.
+	 * @return The type.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public Class<? extends FurballAsset> type(int index) {
+		final Object element = elements.get(index);
+		return element instanceof EncodedAsset encoded ? encoded.type().owner() : ((FurballAsset) element).getClass();
+	}
+
+	/**
+	 * Sorts this list.
+	 * If {@code c} is {@code null}, the assets are sorted in their {@linkplain FurballAsset#compareTo(FurballAsset) natural order}
+	 * (by file name, and then by ID) without decoding any of them.
+	 * Otherwise, every asset is decoded first.
+	 * @param c The comparator, or {@code null} to use the natural order.
+	 */
+	@Override
+	public void sort(@Nullable Comparator<? super FurballAsset> c) {
+		if (c == null)
+			elements.sort(Comparator.comparing(FurballAssetList::filenameOf).thenComparing(FurballAssetList::idOf));
+		else {
+			for (int i = 0; i < elements.size(); i++) get(i);
+			elements.sort((a, b) -> c.compare((FurballAsset) a, (FurballAsset) b));
+		}
+
+		modCount++;
+	}
+
+	@Nullable
+	private static FurballAsset decode(@Nullable Object element) {
+		return element instanceof EncodedAsset encoded ? encoded.decode() : (FurballAsset) element;
+	}
+
+	private static UUID idOf(Object element) {
+		return element instanceof EncodedAsset encoded ? encoded.id() : ((FurballAsset) element).id;
+	}
+
+	private static String filenameOf(Object element) {
+		return element instanceof EncodedAsset encoded ? encoded.filename() : ((FurballAsset) element).filename;
+	}
+}
\ No newline at end of file
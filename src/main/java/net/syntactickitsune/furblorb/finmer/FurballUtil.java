@@ -1,5 +1,6 @@
 package net.syntactickitsune.furblorb.finmer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -11,7 +12,10 @@ import org.jetbrains.annotations.Nullable;
 import net.syntactickitsune.furblorb.io.Decoder;
 import net.syntactickitsune.furblorb.io.Encoder;
 import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.codec.Codec;
 import net.syntactickitsune.furblorb.io.codec.JsonCodec;
+import net.syntactickitsune.furblorb.io.codec.StreamingJsonDecoder;
+import net.syntactickitsune.furblorb.io.codec.StreamingJsonEncoder;
 
 /**
  * Various {@link Furball}-related utilities.
@@ -22,7 +26,7 @@ public final class FurballUtil {
 	/**
 	 * Represents an "empty" {@code UUID}, or at least, what Finmer uses to mean one.
 	 */
-	public static final UUID EMPTY_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+	public static final UUID EMPTY_UUID = Codec.EMPTY_UUID;
 
 	public static void checkInRange(String name, int value, int min, int max) {
 		if (value < min || value > max)
@@ -33,6 +37,20 @@ public final class FurballUtil {
 		return in.formatVersion() >= 21 ? in.readObjectList(key, reader) : in.readOptionalObjectList(key, reader);
 	}
 
+	/**
+	 * Returns the specified decoded list as an exactly-sized, mutable {@link ArrayList}.
+	 * The lists the codecs decode already are one, so they are trimmed in place rather than copied; any other list is copied.
+	 * @param <T> The type of element.
+	 * @param list The decoded list.
+	 * @return The list.
+	 * @since 2.0.0
+	 */
+	public static <T> List<T> ownList(List<T> list) {
+		if (!(list instanceof ArrayList<T> ret)) return new ArrayList<>(list);
+		ret.trimToSize();
+		return ret;
+	}
+
 	public static <T> void writeObjectList21(Encoder to, @Nullable String key, Collection<T> value, BiConsumer<T, Encoder> writer) {
 		if (to.formatVersion() >= 21)
 			to.writeObjectList(key, value, writer);
@@ -55,4 +73,12 @@ public final class FurballUtil {
 	public static void initializeJsonCodec(JsonCodec codec) {
 		codec.setEncodeZeroIdsAsNull(codec.formatVersion() >= 21);
 	}
+
+	public static void initializeJsonDecoder(StreamingJsonDecoder decoder) {
+		decoder.setEncodeZeroIdsAsNull(decoder.formatVersion() >= 21);
+	}
+
+	public static void initializeJsonEncoder(StreamingJsonEncoder encoder) {
+		encoder.setEncodeZeroIdsAsNull(encoder.formatVersion() >= 21);
+	}
 }
\ No newline at end of file
@@ -6,19 +6,35 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Nullable;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+
 /**
  * A collection of various utilities used internally by Furblorb.
  * These should not generally be useful to others using this project.
@@ -81,10 +97,9 @@ public final class FurblorbUtil {
 	}
 
 	public static JsonObject readJson(byte[] bytes) {
-		String j = new String(bytes, StandardCharsets.UTF_8);
-		if (j.charAt(0) == 65279) j = j.substring(1); // Remove the BOM, if present.
-
-		final JsonElement elem = JsonParser.parseString(j);
+		// Remove the BOM, if present, and parse straight from the bytes rather than copying them into a String first.
+		final int offset = bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF ? 3 : 0;
+		final JsonElement elem = JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(bytes, offset, bytes.length - offset), StandardCharsets.UTF_8));
 		return elem.getAsJsonObject();
 	}
 
@@ -93,31 +108,273 @@ public final class FurblorbUtil {
 	}
 
 	public static byte[] compress(byte[] input) {
-		try (ByteArrayInputStream bais = new ByteArrayInputStream(input);
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				GZIPOutputStream gos = new GZIPOutputStream(baos)) {
-			bais.transferTo(gos);
-			gos.close();
-			final byte[] bytes = baos.toByteArray();
-			bytes[8] = 4; // Set compression level to "light compression" -- what .NET sets it as.
-			bytes[9] = 0; // Set OS to "FAT filesystem" -- what .NET sets it as.
-			return bytes;
+		return compress(input, Deflater.DEFAULT_COMPRESSION, null);
+	}
+
+	/**
+	 * <p>
+	 * Compresses the specified data into a single GZIP member, with the header patched to match what .NET produces.
+	 * </p>
+	 * <p>
+	 * Without an executor, this is equivalent to a {@link GZIPOutputStream} using the specified compression level.
+	 * With one, the data is split into {@value #PARALLEL_BLOCK_SIZE}-byte blocks that are compressed in parallel, in the style of
+	 * <a href="https://zlib.net/pigz/">pigz</a>: each block is primed with the last 32 kiB of the data preceding it as a dictionary
+	 * (so that the compression ratio barely suffers), and ends with a sync flush so that the blocks can simply be concatenated.
+	 * The result is a standard GZIP member, but it is not byte-for-byte identical to the sequential output.
+	 * </p>
+	 * @param input The data to compress.
+	 * @param level The compression level, from {@code 0} to {@code 9}, or {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @param executor The executor to compress blocks with, or {@code null} to compress sequentially.
+	 * @return The compressed data.
+	 * @throws IllegalArgumentException If the compression level is invalid.
+	 */
+	public static byte[] compress(byte[] input, int level, @Nullable Executor executor) {
+		checkCompressionLevel(level);
+		if (executor != null && input.length > PARALLEL_BLOCK_SIZE)
+			return compressInParallel(input, level, executor);
+
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream(input.length / 4 + 32);
+		try (OutputStream out = compressingStream(baos, level)) {
+			out.write(input);
 		} catch (IOException e) {
 			throwAsUnchecked(e);
-			return null;
+		}
+
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Returns a stream that compresses everything written to it into a single GZIP member, with the header patched to match what .NET produces.
+	 * The output is identical to that of {@link #compress(byte[], int, Executor) compress(input, level, null)},
+	 * but is written to {@code out} incrementally, so neither the uncompressed nor the compressed data ever needs to be held in memory in full.
+	 * {@linkplain DeflaterOutputStream#finish() Finishing} the stream writes the GZIP trailer, and closing it finishes it before closing {@code out}.
+	 * @param out The stream to write the compressed data to.
+	 * @param level The compression level, from {@code 0} to {@code 9}, or {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @return The compressing stream.
+	 * @throws IOException If an I/O error occurs writing the GZIP header.
+	 * @throws IllegalArgumentException If the compression level is invalid.
+	 * @throws NullPointerException If {@code out} is {@code null}.
+	 */
+	public static DeflaterOutputStream compressingStream(OutputStream out, int level) throws IOException {
+		checkCompressionLevel(level);
+		return new CompressingOutputStream(Objects.requireNonNull(out, "out"), level);
+	}
+
+	private static void checkCompressionLevel(int level) {
+		if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+			throw new IllegalArgumentException("Invalid compression level: " + level);
+	}
+
+	private static final byte[] GZIP_HEADER = {
+			0x1F, (byte) 0x8B, 8, 0, 0, 0, 0, 0, // Same as GZIPOutputStream, up to here.
+			4, // Set compression level to "light compression" -- what .NET sets it as.
+			0 // Set OS to "FAT filesystem" -- what .NET sets it as.
+	};
+
+	private static byte[] gzipTrailer(CRC32 crc, int size) {
+		final int crcValue = (int) crc.getValue();
+		return new byte[] {
+				(byte) crcValue, (byte) (crcValue >>> 8), (byte) (crcValue >>> 16), (byte) (crcValue >>> 24),
+				(byte) size, (byte) (size >>> 8), (byte) (size >>> 16), (byte) (size >>> 24)
+		};
+	}
+
+	private static final class CompressingOutputStream extends DeflaterOutputStream {
+
+		private final CRC32 crc = new CRC32();
+		private boolean finished;
+
+		CompressingOutputStream(OutputStream out, int level) throws IOException {
+			super(out, new Deflater(level, true), 8 * 1024);
+			out.write(GZIP_HEADER);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			super.write(b, off, len);
+			crc.update(b, off, len);
+		}
+
+		@Override
+		public void finish() throws IOException {
+			if (finished) return;
+			super.finish();
+			out.write(gzipTrailer(crc, (int) def.getBytesRead()));
+			finished = true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				def.end(); // The deflater isn't DeflaterOutputStream's own, so it won't end it for us.
+			}
+		}
+	}
+
+	/**
+	 * The size of the blocks {@link #compress(byte[], int, Executor)} splits data into when compressing in parallel.
+	 */
+	public static final int PARALLEL_BLOCK_SIZE = 128 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+
+	private static byte[] compressInParallel(byte[] input, int level, Executor executor) {
+		final int blocks = (input.length + PARALLEL_BLOCK_SIZE - 1) / PARALLEL_BLOCK_SIZE;
+		final List<CompletableFuture<byte[]>> futures = new ArrayList<>(blocks);
+
+		for (int i = 0; i < blocks; i++) {
+			final int start = i * PARALLEL_BLOCK_SIZE;
+			final int length = Math.min(PARALLEL_BLOCK_SIZE, input.length - start);
+			final boolean last = i == blocks - 1;
+			futures.add(CompletableFuture.supplyAsync(() -> deflateBlock(input, start, length, level, last), executor));
+		}
+
+		// The CRC is computed while the blocks are being compressed.
+		final CRC32 crc = new CRC32();
+		crc.update(input);
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 32);
+		out.writeBytes(GZIP_HEADER);
+		try {
+			for (CompletableFuture<byte[]> future : futures)
+				out.writeBytes(future.join());
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(false));
+			return throwAsUnchecked(e.getCause());
+		}
+
+		out.writeBytes(gzipTrailer(crc, input.length));
+		return out.toByteArray();
+	}
+
+	private static byte[] deflateBlock(byte[] input, int start, int length, int level, boolean last) {
+		final Deflater deflater = new Deflater(level, true);
+		try {
+			if (start > 0) {
+				final int dictStart = Math.max(0, start - DICTIONARY_SIZE);
+				deflater.setDictionary(input, dictStart, start - dictStart);
+			}
+
+			deflater.setInput(input, start, length);
+			if (last) deflater.finish();
+
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+			final byte[] buf = new byte[16 * 1024];
+			while (true) {
+				final int n = deflater.deflate(buf, 0, buf.length, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+				out.write(buf, 0, n);
+
+				// A sync flush is complete once it no longer fills the output buffer.
+				if (last ? deflater.finished() : n < buf.length) break;
+			}
+
+			return out.toByteArray();
+		} finally {
+			deflater.end();
 		}
 	}
 
 	public static byte[] decompress(byte[] input) {
-		try (ByteArrayInputStream bais = new ByteArrayInputStream(input);
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				GZIPInputStream gis = new GZIPInputStream(bais)) {
-			gis.transferTo(baos);
-			gis.close();
-			return baos.toByteArray();
-		} catch (IOException e) {
-			throwAsUnchecked(e);
-			return null;
+		return decompress(ByteBuffer.wrap(input));
+	}
+
+	/**
+	 * <p>
+	 * Decompresses the GZIP data remaining in the specified buffer, advancing it past the consumed data.
+	 * </p>
+	 * <p>
+	 * Unlike going through a {@link GZIPInputStream}, the output is allocated only once, pre-sized using the uncompressed size
+	 * stored in the GZIP trailer, and the data is inflated straight out of the buffer (which may be direct or memory-mapped)
+	 * using a reused {@link Inflater}. The CRC and size in the trailer are verified.
+	 * Concatenated GZIP members are supported, just as with {@code GZIPInputStream}.
+	 * </p>
+	 * @param input The compressed data.
+	 * @return The decompressed data.
+	 * @throws FurblorbParsingException If the data is not valid GZIP data.
+	 */
+	public static byte[] decompress(ByteBuffer input) {
+		// The trailer of the (last) member holds the uncompressed size modulo 2^32. Trust it only as far as deflate's maximum ratio allows.
+		final int remaining = input.remaining();
+		long hint = remaining >= 18 ? Integer.toUnsignedLong(readIntLE(input, input.limit() - 4)) : 0;
+		hint = Math.min(hint, Math.min(remaining * 1032L, Integer.MAX_VALUE - 8));
+
+		byte[] out = new byte[(int) hint];
+		int size = 0;
+
+		final Inflater inflater = INFLATER.get();
+		final CRC32 crc = new CRC32();
+		try {
+			do {
+				readGzipHeader(input);
+
+				inflater.reset();
+				inflater.setInput(input);
+				crc.reset();
+				final int start = size;
+
+				while (!inflater.finished()) {
+					if (size == out.length) {
+						if (out.length >= Integer.MAX_VALUE - 8) throw new FurblorbParsingException("GZIP data too large");
+						out = Arrays.copyOf(out, (int) Math.min(Math.max(out.length * 2L, 8192), Integer.MAX_VALUE - 8));
+					}
+
+					final int n = inflater.inflate(out, size, out.length - size);
+					if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+						throw new FurblorbParsingException("Truncated GZIP data");
+					size += n;
+				}
+
+				// Inflater.setInput(ByteBuffer) advances the buffer as input is consumed.
+				crc.update(out, start, size - start);
+				if (input.remaining() < 8)
+					throw new FurblorbParsingException("Truncated GZIP trailer");
+				if (readIntLE(input, input.position()) != (int) crc.getValue())
+					throw new FurblorbParsingException("GZIP CRC mismatch");
+				if (readIntLE(input, input.position() + 4) != size - start)
+					throw new FurblorbParsingException("GZIP size mismatch");
+				input.position(input.position() + 8);
+			} while (input.remaining() >= 2 && input.get(input.position()) == 0x1F && input.get(input.position() + 1) == (byte) 0x8B);
+		} catch (DataFormatException e) {
+			throw new FurblorbParsingException("Malformed GZIP data", e);
+		} finally {
+			inflater.reset(); // Don't keep the input reachable from the pooled Inflater.
 		}
+
+		return size == out.length ? out : Arrays.copyOf(out, size);
+	}
+
+	private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	private static void readGzipHeader(ByteBuffer input) {
+		try {
+			if (input.get() != 0x1F || input.get() != (byte) 0x8B)
+				throw new FurblorbParsingException("Not in GZIP format");
+			if (input.get() != 8)
+				throw new FurblorbParsingException("Unsupported GZIP compression method");
+
+			final int flags = input.get();
+			input.position(input.position() + 6); // MTIME, XFL, OS
+
+			if ((flags & FEXTRA) != 0)
+				input.position(input.position() + ((input.get() & 0xFF) | (input.get() & 0xFF) << 8));
+			if ((flags & FNAME) != 0)
+				while (input.get() != 0);
+			if ((flags & FCOMMENT) != 0)
+				while (input.get() != 0);
+			if ((flags & FHCRC) != 0)
+				input.position(input.position() + 2);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new FurblorbParsingException("Truncated GZIP header", e);
+		}
+	}
+
+	private static int readIntLE(ByteBuffer buf, int index) {
+		return (buf.get(index) & 0xFF) | (buf.get(index + 1) & 0xFF) << 8 | (buf.get(index + 2) & 0xFF) << 16 | (buf.get(index + 3) & 0xFF) << 24;
 	}
 }
\ No newline at end of file
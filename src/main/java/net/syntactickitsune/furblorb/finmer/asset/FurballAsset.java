@@ -2,7 +2,13 @@ package net.syntactickitsune.furblorb.finmer.asset;
 
 import java.util.UUID;
 
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Nullable;
+
 import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.io.EncodedAsset;
+import net.syntactickitsune.furblorb.finmer.io.FurballReader;
+import net.syntactickitsune.furblorb.finmer.io.FurballWriter;
 import net.syntactickitsune.furblorb.finmer.io.IFurballSerializable;
 import net.syntactickitsune.furblorb.io.Decoder;
 import net.syntactickitsune.furblorb.io.Encoder;
@@ -24,6 +30,12 @@ import net.syntactickitsune.furblorb.io.Encoder;
  * <li>{@link StringTableAsset}</li>
  * </ul>
  * </p>
+ * <p>
+ * Assets read by a {@link FurballReader} that {@linkplain FurballReader#setRetainEncoded(boolean) retains encoded assets}
+ * remember the {@code byte}s they were decoded from, which {@link FurballWriter} copies verbatim instead of re-encoding the asset.
+ * Since assets are freely mutable, the encoded form is only used while the asset's {@linkplain #hashCode() hash code} still matches
+ * the one it had when it was decoded; whoever modifies such an asset may also {@linkplain #markDirty() mark it as dirty} to discard it outright.
+ * </p>
  * @author SyntacticKitsune
  */
 public sealed abstract class FurballAsset implements IFurballSerializable, Comparable<FurballAsset> permits CreatureAsset, ItemAsset, JournalAsset, SceneAsset, ScriptAsset, StringTableAsset {
@@ -38,6 +50,9 @@ public sealed abstract class FurballAsset implements IFurballSerializable, Compa
 	 */
 	public String filename;
 
+	@Nullable
+	private EncodedAsset encoded;
+
 	/**
 	 * Constructs a new {@code FurballAsset} with default values.
 	 */
@@ -60,6 +75,39 @@ public sealed abstract class FurballAsset implements IFurballSerializable, Compa
 		write0(to);
 	}
 
+	/**
+	 * Returns the encoded form this {@code FurballAsset} was decoded from, if it is still known to be accurate.
+	 * @return The encoded form, or {@code null} if this asset was not read with its encoded form retained, has been modified
+	 * or has been {@linkplain #markDirty() marked dirty} since.
+	 * @since 2.0.0
+	 * @see EncodedAsset#matches(FurballAsset)
+	 */
+	@Nullable
+	public EncodedAsset encoded() {
+		final EncodedAsset encoded = this.encoded;
+		return encoded != null && encoded.matches(this) ? encoded : null;
+	}
+
+	/**
+	 * Associates this {@code FurballAsset} with the encoded form it was decoded from.
+	 * @param encoded The encoded form.
+	 * @since 2.0.0
+	 */
+	@Internal
+	public void setEncoded(@Nullable EncodedAsset encoded) {
+		this.encoded = encoded;
+	}
+
+	/**
+	 * Marks this {@code FurballAsset} as modified, discarding its {@linkplain #encoded() encoded form} (if any).
+	 * Modifications are also detected without this (by comparing {@linkplain #hashCode() hash codes}), but marking an asset
+	 * as dirty skips hashing it when it is written, and covers the rare modification that leaves its hash code unchanged.
+	 * @since 2.0.0
+	 */
+	public void markDirty() {
+		encoded = null;
+	}
+
 	/**
 	 * Writes the type-specific contents of this {@code FurballAsset} to the specified {@code Encoder}.
 	 * @param to The {@code Encoder}.
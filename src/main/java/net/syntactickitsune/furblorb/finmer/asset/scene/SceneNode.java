@@ -113,12 +113,14 @@ public final class SceneNode implements IFurballSerializable {
 	 * A list of child nodes.
 	 * Only {@linkplain Type#ROOT root}, {@linkplain Type#STATE state}, and {@linkplain Type#CHOICE choice} may have children.
 	 */
-	public final List<SceneNode> children = new ArrayList<>();
+	public final List<SceneNode> children;
 
 	/**
 	 * Constructs a new {@code SceneNode} with default values.
 	 */
-	public SceneNode() {}
+	public SceneNode() {
+		children = new ArrayList<>();
+	}
 
 	/**
 	 * Decodes a {@code SceneNode} from the specified {@code Decoder}.
@@ -163,9 +165,11 @@ public final class SceneNode implements IFurballSerializable {
 			}
 
 			if (props.contains(Properties.CHILDREN))
-				this.children.addAll(in.readObjectList("Children", SceneNode::new));
-			else
+				children = FurballUtil.ownList(in.readObjectList("Children", SceneNode::new));
+			else {
 				in.assertDoesNotExist("Children", type.id + " nodes may not have children");
+				children = new ArrayList<>();
+			}
 		} catch (CascadingSceneLoadingException e) {
 			e.path.add(0, key);
 			throw e;
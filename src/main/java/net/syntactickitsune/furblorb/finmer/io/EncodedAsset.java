@@ -0,0 +1,199 @@
+package net.syntactickitsune.furblorb.finmer.io;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.syntactickitsune.furblorb.finmer.FurballAssetList;
+import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
+import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.StringTable;
+import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
+import net.syntactickitsune.furblorb.io.codec.CodecMode;
+
+/**
+ * <p>
+ * An {@code EncodedAsset} is a {@link FurballAsset} in its encoded (binary) form, as it appears inside a furball.
+ * Only the asset's ID, file name and type are decoded up front; the rest is kept as a slice of the original data
+ * and is only decoded when {@link #decode()} is invoked.
+ * </p>
+ * <p>
+ * {@code EncodedAsset}s are created by {@link FurballReader} in {@linkplain FurballReader#setLazy(boolean) lazy mode},
+ * and are held by {@link FurballAssetList} until the asset they represent is first accessed.
+ * {@link FurballWriter} copies them back out verbatim when writing a furball of the same format version.
+ * </p>
+ * <p>
+ * {@code EncodedAsset}s are immutable.
+ * However, the data they slice must not be modified while they are in use.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see FurballAssetList
+ */
+public final class EncodedAsset {
+
+	private static final long UNKNOWN_HASH = Long.MIN_VALUE;
+
+	private final ByteBuffer data;
+	private final byte formatVersion;
+	private final boolean validate;
+	private final boolean retain;
+	@Nullable
+	private final StringTable strings;
+	private final FurballSerializables.Metadata<? extends FurballAsset> type;
+	private final UUID id;
+	private final String filename;
+
+	// The hash code of the asset this was decoded from, or UNKNOWN_HASH if it has not been decoded yet.
+	private volatile long assetHash = UNKNOWN_HASH;
+
+	/**
+	 * Constructs a new {@code EncodedAsset} from the specified data.
+	 * @param data The encoded asset, starting with its type ID. This is retained, not copied.
+	 * @param formatVersion The format version the asset was encoded with.
+	 * @param validate Whether to validate the asset when it is decoded.
+	 * @param retain Whether assets {@linkplain #decode() decoded} from this {@code EncodedAsset} should {@linkplain FurballAsset#encoded() retain} it.
+	 * @param strings The table to deduplicate strings against when the asset is decoded, or {@code null}.
+	 * @throws FurblorbParsingException If the data does not represent a {@code FurballAsset}.
+	 * @throws UnknownSerializableException If the type ID does not represent a known {@code IFurballSerializable} implementation.
+	 */
+	@SuppressWarnings("unchecked")
+	EncodedAsset(ByteBuffer data, byte formatVersion, boolean validate, boolean retain, @Nullable StringTable strings) {
+		this.data = data.asReadOnlyBuffer().order(data.order());
+		this.formatVersion = formatVersion;
+		this.validate = validate;
+		this.retain = retain;
+		this.strings = strings;
+
+		final FurballCodec codec = codec();
+		final int typeId = codec.readInt();
+		final FurballSerializables.Metadata<?> md = FurballSerializables.lookupById(typeId);
+		if (md == null)
+			throw new UnknownSerializableException(typeId);
+		if (!FurballAsset.class.isAssignableFrom(md.owner()))
+			throw new FurblorbParsingException("Expected an asset, but found " + md.name());
+
+		type = (FurballSerializables.Metadata<? extends FurballAsset>) md;
+
+		// Mirrors FurballAsset(Decoder).
+		id = codec.readUUID();
+		filename = codec.readString();
+	}
+
+	/**
+	 * Constructs a new {@code EncodedAsset} for an asset that has already been decoded from the specified data.
+	 * @param asset The decoded asset.
+	 * @param data The encoded asset, starting with its type ID. This is retained, not copied.
+	 * @param formatVersion The format version the asset was encoded with.
+	 * @param validate Whether to validate the asset when it is decoded again.
+	 * @param strings The table to deduplicate strings against when the asset is decoded again, or {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	EncodedAsset(FurballAsset asset, ByteBuffer data, byte formatVersion, boolean validate, @Nullable StringTable strings) {
+		this.data = data.asReadOnlyBuffer().order(data.order());
+		this.formatVersion = formatVersion;
+		this.validate = validate;
+		retain = true;
+		this.strings = strings;
+		type = (FurballSerializables.Metadata<? extends FurballAsset>) asset.metadata();
+		id = asset.id;
+		filename = asset.filename;
+		assetHash = asset.hashCode();
+	}
+
+	private FurballCodec codec() {
+		final BinaryCodec codec = new BinaryCodec(data.duplicate().order(data.order()), CodecMode.READ_ONLY);
+		codec.setFormatVersion(formatVersion);
+		codec.setValidate(validate);
+		codec.setStringTable(strings);
+		return FurballCodec.forReading(codec);
+	}
+
+	/**
+	 * Fully decodes the asset.
+	 * Each invocation returns a new {@code FurballAsset}, which {@linkplain FurballAsset#encoded() retains} this {@code EncodedAsset}
+	 * if the {@link FurballReader} that created it {@linkplain FurballReader#setRetainEncoded(boolean) was asked to}.
+	 * @return The decoded asset.
+	 * @throws FurblorbParsingException If the asset cannot be decoded.
+	 */
+	public FurballAsset decode() {
+		final FurballAsset asset = FurballSerializables.read(codec());
+		if (retain) {
+			// Every decoded asset is equal, so the first one's hash code stands for all of them.
+			if (assetHash == UNKNOWN_HASH)
+				assetHash = asset.hashCode();
+			asset.setEncoded(this);
+		}
+		return asset;
+	}
+
+	/**
+	 * Returns whether this {@code EncodedAsset} is still an accurate encoding of the specified asset, which must have been decoded from it.
+	 * The asset's {@linkplain FurballAsset#hashCode() hash code} is compared against the one it had when it was decoded (or stored),
+	 * so that modifications are noticed even if the asset was never {@linkplain FurballAsset#markDirty() marked dirty}.
+	 * @param asset The asset.
+	 * @return {@code true} if the asset appears unmodified.
+	 * @throws NullPointerException If {@code asset} is {@code null}.
+	 */
+	public boolean matches(FurballAsset asset) {
+		final long hash = assetHash;
+		return hash != UNKNOWN_HASH && hash == asset.hashCode();
+	}
+
+	/**
+	 * @return The asset's ID.
+	 */
+	public UUID id() {
+		return id;
+	}
+
+	/**
+	 * @return The asset's file name.
+	 */
+	public String filename() {
+		return filename;
+	}
+
+	/**
+	 * @return The serializable metadata describing the asset's type.
+	 */
+	public FurballSerializables.Metadata<? extends FurballAsset> type() {
+		return type;
+	}
+
+	/**
+	 * @return The format version the asset was encoded with.
+	 */
+	public byte formatVersion() {
+		return formatVersion;
+	}
+
+	/**
+	 * Returns a read-only view of the encoded asset, starting with its type ID.
+	 * This is exactly what {@link FurballAsset#writeWithId(net.syntactickitsune.furblorb.io.Encoder) writeWithId()} would write
+	 * for the decoded asset in the same format version.
+	 * @return The encoded asset.
+	 */
+	public ByteBuffer data() {
+		return data.duplicate().order(data.order());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof EncodedAsset a)) return false;
+		return formatVersion == a.formatVersion && data.equals(a.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(formatVersion, data);
+	}
+
+	@Override
+	public String toString() {
+		return "Encoded" + type.owner().getSimpleName() + " " + filename + " (" + id + ")";
+	}
+}
\ No newline at end of file
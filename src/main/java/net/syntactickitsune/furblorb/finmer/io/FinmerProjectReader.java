@@ -5,8 +5,14 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 import org.jetbrains.annotations.Nullable;
@@ -14,15 +20,19 @@ import org.jetbrains.annotations.Nullable;
 import com.google.gson.JsonObject;
 
 import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.FurballAssetList;
 import net.syntactickitsune.furblorb.finmer.FurballDependency;
 import net.syntactickitsune.furblorb.finmer.FurballMetadata;
 import net.syntactickitsune.furblorb.finmer.FurballUtil;
 import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
+import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
 import net.syntactickitsune.furblorb.io.ExternalFileHandler;
 import net.syntactickitsune.furblorb.io.FurblorbException;
 import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.StringTable;
 import net.syntactickitsune.furblorb.io.codec.CodecMode;
 import net.syntactickitsune.furblorb.io.codec.JsonCodec;
+import net.syntactickitsune.furblorb.io.codec.StreamingJsonDecoder;
 
 /**
  * <p>
@@ -40,6 +50,11 @@ import net.syntactickitsune.furblorb.io.codec.JsonCodec;
 public final class FinmerProjectReader {
 
 	private final ExtendedExternalFileHandler externalFiles;
+	@Nullable
+	private ProjectBuildCache buildCache;
+	@Nullable
+	private Executor executor;
+	private boolean deduplicateStrings;
 
 	/**
 	 * Constructs a new {@code FinmerProjectReader} with the specified external file handler.
@@ -51,10 +66,57 @@ public final class FinmerProjectReader {
 		this.externalFiles = Objects.requireNonNull(externalFiles, "externalFiles");
 	}
 
-	private JsonObject readJson(String filename) {
+	/**
+	 * Sets the build cache used to skip parsing assets that have not changed since the project was last read.
+	 * Assets found in the cache are added to the furball {@linkplain FurballAssetList#addEncoded(EncodedAsset) in their encoded form},
+	 * and those that aren't are cached as they are parsed; either way, they {@linkplain FurballAsset#encoded() retain their encoded form},
+	 * so they are not encoded again by {@link FurballWriter}.
+	 * The cache must be {@linkplain ProjectBuildCache#save() saved} afterwards for the next read to benefit from it.
+	 * @param buildCache The build cache, or {@code null} to parse every asset.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FinmerProjectReader setBuildCache(@Nullable ProjectBuildCache buildCache) {
+		this.buildCache = buildCache;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * Sets the executor used to read assets in parallel.
+	 * Each asset is read (along with its external files), parsed and decoded as a separate task,
+	 * and the assets are then added to the furball in sorted order, so the result is identical to reading them sequentially.
+	 * </p>
+	 * <p>
+	 * The {@link ExtendedExternalFileHandler} must support being read from multiple threads at once, which {@link ReadOnlyExternalFileHandler} does.
+	 * </p>
+	 * @param executor The executor (such as {@link java.util.concurrent.ForkJoinPool#commonPool()}), or {@code null} to read assets on the calling thread.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FinmerProjectReader setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets whether repeated strings should be deduplicated while reading.
+	 * Each {@linkplain #readFurball() read} then decodes its strings against a fresh {@link StringTable},
+	 * so that short strings which occur many times over (variable names, property keys and the like) share a single instance.
+	 * This costs a little decoding time, but reduces the memory retained by the read furball.
+	 * @param deduplicateStrings {@code true} to deduplicate strings, {@code false} otherwise.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FinmerProjectReader setDeduplicateStrings(boolean deduplicateStrings) {
+		this.deduplicateStrings = deduplicateStrings;
+		return this;
+	}
+
+	private byte[] readFile(String filename) {
 		final byte[] bytes = externalFiles.readExternalFile(filename);
 		if (bytes == null) throw new FurblorbParsingException("ExternalFileHandler returned null for " + filename);
-		return FurblorbUtil.readJson(bytes);
+		return bytes;
 	}
 
 	private FurballMetadata readMetadata(JsonCodec codec) {
@@ -86,17 +148,112 @@ public final class FinmerProjectReader {
 				.sorted()
 				.toList();
 
+		final StringTable strings = deduplicateStrings ? new StringTable() : null;
+		if (executor == null)
+			for (String asset : assets)
+				readAsset(asset, meta.formatVersion, strings).addTo(furball.assets);
+		else
+			readAssetsInParallel(assets, furball.assets, meta.formatVersion, strings, executor);
+
+		return furball;
+	}
+
+	private void readAssetsInParallel(List<String> assets, FurballAssetList to, byte formatVersion, @Nullable StringTable strings, Executor executor) {
+		final List<CompletableFuture<ReadAsset>> futures = new ArrayList<>(assets.size());
 		for (String asset : assets)
-			try {
-				final JsonObject obj = readJson(asset);
-				final JsonCodec codec = new JsonCodec(obj, externalFiles, CodecMode.READ_ONLY, meta.formatVersion);
-				FurballUtil.initializeJsonCodec(codec);
-				furball.assets.add(FurballSerializables.read(codec));
-			} catch (Exception e) {
-				throw new FurblorbException("Exception reading asset " + asset, e);
+			futures.add(CompletableFuture.supplyAsync(() -> readAsset(asset, formatVersion, strings), executor));
+
+		try {
+			for (CompletableFuture<ReadAsset> future : futures)
+				future.join().addTo(to);
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(false));
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			if (e.getCause() instanceof Error err) throw err;
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the specified asset.
+	 * @param filename The name of the asset's JSON file.
+	 * @param formatVersion The format version of the project.
+	 * @param strings The table to deduplicate strings against, or {@code null}.
+	 * @return The asset: either decoded or, if it was found in the build cache, still encoded.
+	 * @throws FurblorbException If the asset cannot be read.
+	 */
+	private ReadAsset readAsset(String filename, byte formatVersion, @Nullable StringTable strings) {
+		try {
+			return doReadAsset(filename, formatVersion, strings);
+		} catch (Exception e) {
+			throw new FurblorbException("Exception reading asset " + filename, e);
+		}
+	}
+
+	private ReadAsset doReadAsset(String filename, byte formatVersion, @Nullable StringTable strings) {
+		final byte[] json = readFile(filename);
+
+		if (buildCache == null)
+			return new Decoded(parseAsset(json, externalFiles, formatVersion, strings));
+
+		final EncodedAsset cached = buildCache.lookup(filename, json, formatVersion, externalFiles, strings);
+		if (cached != null) return new Cached(cached);
+
+		// Keep track of every external file the asset reads, so that the cache can tell when they change.
+		final Map<String, byte[]> externals = new LinkedHashMap<>();
+		final ExternalFileHandler recording = new ExternalFileHandler() {
+			@Override
+			public boolean handles(String name) {
+				return externalFiles.handles(name);
 			}
 
-		return furball;
+			@Override
+			public byte @Nullable [] readExternalFile(String name) {
+				final byte[] contents = externalFiles.readExternalFile(name);
+				externals.put(name, contents);
+				return contents;
+			}
+
+			@Override
+			public String normalizeLineEndings(String in) {
+				return externalFiles.normalizeLineEndings(in);
+			}
+		};
+
+		final FurballAsset asset = parseAsset(json, recording, formatVersion, strings);
+		buildCache.store(filename, json, externals, asset, formatVersion, strings);
+		return new Decoded(asset);
+	}
+
+	private static FurballAsset parseAsset(byte[] json, ExternalFileHandler externalFiles, byte formatVersion, @Nullable StringTable strings) {
+		final StreamingJsonDecoder decoder = new StreamingJsonDecoder(json, externalFiles, formatVersion);
+		FurballUtil.initializeJsonDecoder(decoder);
+		decoder.setStringTable(strings);
+		return decoder.read(FurballSerializables::read);
+	}
+
+	/**
+	 * An asset read by {@link #readAsset(String, byte, StringTable)}, which knows how to add itself to the furball's asset list.
+	 */
+	private static sealed interface ReadAsset permits Decoded, Cached {
+
+		void addTo(FurballAssetList assets);
+	}
+
+	private static record Decoded(FurballAsset asset) implements ReadAsset {
+
+		@Override
+		public void addTo(FurballAssetList assets) {
+			assets.add(asset);
+		}
+	}
+
+	private static record Cached(EncodedAsset asset) implements ReadAsset {
+
+		@Override
+		public void addTo(FurballAssetList assets) {
+			assets.addEncoded(asset);
+		}
 	}
 
 	/**
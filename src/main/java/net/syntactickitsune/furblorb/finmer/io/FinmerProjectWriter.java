@@ -1,29 +1,46 @@
 package net.syntactickitsune.furblorb.finmer.io;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.Nullable;
 
+import com.google.gson.FormattingStyle;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonWriter;
 
 import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.FurballAssetList;
 import net.syntactickitsune.furblorb.finmer.FurballDependency;
 import net.syntactickitsune.furblorb.finmer.FurballUtil;
 import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
 import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectReader.ExtendedExternalFileHandler;
-import net.syntactickitsune.furblorb.io.codec.JsonCodec;
+import net.syntactickitsune.furblorb.io.Encoder;
+import net.syntactickitsune.furblorb.io.codec.StreamingJsonEncoder;
 
 /**
  * <p>
@@ -40,9 +57,18 @@ import net.syntactickitsune.furblorb.io.codec.JsonCodec;
  */
 public final class FinmerProjectWriter {
 
+	private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
 	static final Gson GSON = new GsonBuilder().disableHtmlEscaping().serializeNulls().setPrettyPrinting().create();
 
+	/**
+	 * The maximum number of assets {@linkplain #setExecutor(Executor) written in parallel} at once.
+	 */
+	public static final int MAX_PENDING_ASSETS = 32;
+
 	private final ExtendedExternalFileHandler externalFiles;
+	@Nullable
+	private Executor executor;
 
 	/**
 	 * Constructs a new {@code FinmerProjectWriter} with the specified external file handler.
@@ -54,13 +80,49 @@ public final class FinmerProjectWriter {
 		this.externalFiles = Objects.requireNonNull(externalFiles, "externalFiles");
 	}
 
-	private byte[] toBytes(JsonObject json) {
-		final String j = externalFiles.normalizeLineEndings(toJson(json));
+	/**
+	 * <p>
+	 * Sets the executor used to write assets in parallel.
+	 * Each asset is serialized and written (along with its external files) as a separate task.
+	 * At most {@value #MAX_PENDING_ASSETS} assets are in flight at once, so memory usage stays bounded no matter how many assets there are.
+	 * Every file has the same contents as it would have had if the assets were written sequentially;
+	 * assets sharing a file name are written in order, so the last one still wins.
+	 * </p>
+	 * <p>
+	 * The {@link ExtendedExternalFileHandler} must support being written to from multiple threads at once, which {@link WriteOnlyExternalFileHandler} does.
+	 * Assets must not be modified while they are being written.
+	 * </p>
+	 * @param executor The executor (such as {@link java.util.concurrent.ForkJoinPool#commonPool()}), or {@code null} to write assets on the calling thread.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FinmerProjectWriter setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Encodes the specified value straight to UTF-8 json, formatted the way Finmer does (tab indention and a BOM).
+	 * The line endings are those produced by {@link ExtendedExternalFileHandler#normalizeLineEndings(String)}.
+	 */
+	private <T> byte[] toBytes(T value, BiConsumer<T, Encoder> writer, byte formatVersion) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+
 		// Unfortunately, we must insert a UTF-8 BOM character.
 		// I swear I'm going to throw whoever thought UTF-8 BOM was a good idea.
-		final char bomChar = (char) 65279;
+		out.writeBytes(BOM);
+
+		try (JsonWriter jw = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+			jw.setFormattingStyle(FormattingStyle.PRETTY.withIndent("\t").withNewline(externalFiles.normalizeLineEndings("\n")));
 
-		return (bomChar + j).getBytes(StandardCharsets.UTF_8);
+			final StreamingJsonEncoder encoder = new StreamingJsonEncoder(jw, externalFiles, formatVersion);
+			FurballUtil.initializeJsonEncoder(encoder);
+			encoder.write(value, writer);
+		} catch (IOException e) {
+			FurblorbUtil.throwAsUnchecked(e);
+		}
+
+		return out.toByteArray();
 	}
 
 	/**
@@ -83,14 +145,11 @@ public final class FinmerProjectWriter {
 	}
 
 	private void writeProjectFile(Furball furball) {
-		final JsonCodec codec = new JsonCodec(externalFiles, furball.meta.formatVersion);
-		FurballUtil.initializeJsonCodec(codec);
-
-		furball.meta.write(codec);
-
-		codec.writeObjectList("Dependencies", furball.dependencies, FurballDependency::write);
+		externalFiles.writeProjectFile(toBytes(furball, (f, enc) -> {
+			f.meta.write(enc);
 
-		externalFiles.writeProjectFile(toBytes(codec.unwrap()));
+			enc.writeObjectList("Dependencies", f.dependencies, FurballDependency::write);
+		}, furball.meta.formatVersion));
 	}
 
 	/**
@@ -104,33 +163,94 @@ public final class FinmerProjectWriter {
 
 		writeProjectFile(furball);
 
-		for (FurballAsset asset : furball.assets) {
-			final JsonCodec codec = new JsonCodec(externalFiles, furball.meta.formatVersion);
-			FurballUtil.initializeJsonCodec(codec);
-			asset.writeWithId(codec);
-			externalFiles.writeExternalFile(asset.filename + ".json", toBytes(codec.unwrap()));
+		if (executor == null)
+			for (FurballAsset asset : furball.assets)
+				writeAsset(asset, furball.meta.formatVersion);
+		else
+			writeAssetsInParallel(furball.assets, furball.meta.formatVersion, executor);
+	}
+
+	private void writeAsset(FurballAsset asset, byte formatVersion) {
+		externalFiles.writeExternalFile(asset.filename + ".json", toBytes(asset, FurballAsset::writeWithId, formatVersion));
+	}
+
+	private void writeAssetsInParallel(FurballAssetList assets, byte formatVersion, Executor executor) {
+		final Semaphore pending = new Semaphore(MAX_PENDING_ASSETS);
+		final AtomicBoolean failed = new AtomicBoolean();
+		final Map<String, CompletableFuture<Void>> byFilename = new HashMap<>();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>(assets.size());
+
+		for (int i = 0; i < assets.size() && !failed.get(); i++) {
+			pending.acquireUninterruptibly();
+
+			// Retrieve the asset here rather than in the task, since FurballAssetList is not thread-safe.
+			// Encoded assets are decoded by the task, though.
+			final EncodedAsset encoded = assets.isMaterialized(i) ? null : assets.encoded(i);
+			final FurballAsset asset = encoded == null ? assets.get(i) : null;
+			final Runnable task = () -> writeAsset(asset != null ? asset : encoded.decode(), formatVersion);
+
+			// Assets with the same file name overwrite each other, so they must be written in order.
+			final CompletableFuture<Void> previous = byFilename.get(assets.filename(i));
+			final CompletableFuture<Void> future = previous == null ? CompletableFuture.runAsync(task, executor) : previous.thenRunAsync(task, executor);
+			future.whenComplete((v, e) -> {
+				if (e != null) failed.set(true);
+				pending.release();
+			});
+
+			byFilename.put(assets.filename(i), future);
+			futures.add(future);
+		}
+
+		try {
+			for (CompletableFuture<Void> future : futures)
+				future.join();
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(false));
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			if (e.getCause() instanceof Error err) throw err;
+			throw e;
 		}
 	}
 
 	/**
+	 * <p>
 	 * The default writing implementation of {@link ExtendedExternalFileHandler}, which writes projects to a directory on the filesystem.
+	 * It creates directories as needed, and may be used from multiple threads at once.
+	 * </p>
+	 * <p>
+	 * When writing over an existing project, it can optionally {@linkplain #skippingUnchanged() skip files whose contents would not change}.
+	 * This leaves their modification times alone, which keeps editors, file watchers and version control from seeing every file as changed.
+	 * </p>
 	 * @param projectDirectory The directory containing the project file (usually) and its associated assets.
 	 * @param projectFile The project file itself. It need not be in the project directory, but this may confuse Finmer's editor.
+	 * @param skipUnchanged Whether to leave files that already have the contents being written untouched.
 	 * @author SyntacticKitsune
 	 */
-	public static record WriteOnlyExternalFileHandler(Path projectDirectory, Path projectFile) implements ExtendedExternalFileHandler {
+	public static record WriteOnlyExternalFileHandler(Path projectDirectory, Path projectFile, boolean skipUnchanged) implements ExtendedExternalFileHandler {
 
 		/**
 		 * Constructs a new {@code WriteOnlyExternalFileHandler}.
 		 * @param projectDirectory The directory containing the project file (usually) and its associated assets.
 		 * @param projectFile The project file itself. It need not be in the project directory, but this may confuse Finmer's editor.
+		 * @param skipUnchanged Whether to leave files that already have the contents being written untouched.
 		 * @throws NullPointerException If {@code projectDirectory} or {@code projectFile} are {@code null}.
+		 * @since 2.0.0
 		 */
 		public WriteOnlyExternalFileHandler {
 			Objects.requireNonNull(projectDirectory, "projectDirectory");
 			Objects.requireNonNull(projectFile, "projectFile");
 		}
 
+		/**
+		 * Constructs a new {@code WriteOnlyExternalFileHandler} that always writes every file.
+		 * @param projectDirectory The directory containing the project file (usually) and its associated assets.
+		 * @param projectFile The project file itself. It need not be in the project directory, but this may confuse Finmer's editor.
+		 * @throws NullPointerException If {@code projectDirectory} or {@code projectFile} are {@code null}.
+		 */
+		public WriteOnlyExternalFileHandler(Path projectDirectory, Path projectFile) {
+			this(projectDirectory, projectFile, false);
+		}
+
 		/**
 		 * Constructs a new {@code WriteOnlyExternalFileHandler} with the specified project file.
 		 * The project directory is assumed to be the enclosing directory of the project file.
@@ -153,6 +273,17 @@ public final class FinmerProjectWriter {
 			return new WriteOnlyExternalFileHandler(projectDirectory, projectDirectory.resolve(projectDirectory.getFileName().toString() + ".fnproj"));
 		}
 
+		/**
+		 * Returns a copy of this {@code WriteOnlyExternalFileHandler} that skips writing files whose contents would not change.
+		 * Before writing a file, the size of any existing file is compared against that of the new contents, and only if they match are the existing contents read and compared.
+		 * Files that differ (or don't exist yet) are written as usual.
+		 * @return The new {@code WriteOnlyExternalFileHandler}.
+		 * @since 2.0.0
+		 */
+		public WriteOnlyExternalFileHandler skippingUnchanged() {
+			return new WriteOnlyExternalFileHandler(projectDirectory, projectFile, true);
+		}
+
 		@Override
 		public List<String> listFiles() {
 			throw new UnsupportedOperationException();
@@ -172,13 +303,24 @@ public final class FinmerProjectWriter {
 			writeExternalFile(to, contents);
 		}
 
-		private static void writeExternalFile(Path to, byte[] contents) {
+		private void writeExternalFile(Path to, byte[] contents) {
 			try {
+				if (skipUnchanged && isUnchanged(to, contents)) return;
+
 				Files.createDirectories(to.getParent());
 				Files.write(to, contents, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
 			} catch (IOException e) {
 				FurblorbUtil.throwAsUnchecked(e);
 			}
 		}
+
+		private static boolean isUnchanged(Path file, byte[] contents) throws IOException {
+			try {
+				// The size check is cheap and rules out most changed files without reading them.
+				return Files.size(file) == contents.length && Arrays.equals(Files.readAllBytes(file), contents);
+			} catch (NoSuchFileException e) {
+				return false;
+			}
+		}
 	}
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package net.syntactickitsune.furblorb.finmer.io;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
 import org.jetbrains.annotations.Nullable;
 
 import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.StringTable;
 import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.CodecMode;
 import net.syntactickitsune.furblorb.io.codec.SequenceCodec;
@@ -18,6 +23,11 @@ import net.syntactickitsune.furblorb.io.codec.SequenceCodec;
  * Instead, one should use {@link FurballReader} or {@link FurballWriter}, which both handle the other
  * intricacies of the furball file format.
  * </p>
+ * <p>
+ * When the mode and format version are known up front, {@link #forReading(BinaryCodec)} and {@link #forWriting(BinaryCodec)}
+ * should be preferred over the constructor: they select a codec specialized for that mode and format version,
+ * so that individual reads and writes do not need to check either.
+ * </p>
  * @author SyntacticKitsune
  * @see FurballReader
  * @see FurballWriter
@@ -31,8 +41,39 @@ public class FurballCodec extends BinaryCodec {
 	 * @param codec The delegate codec to use for read/write operations.
 	 */
 	public FurballCodec(BinaryCodec codec) {
-		super(codec.buffer(), CodecMode.READ_AND_WRITE);
+		this(codec, CodecMode.READ_AND_WRITE);
+	}
+
+	private FurballCodec(BinaryCodec codec, CodecMode mode) {
+		super(codec.buffer(), mode);
 		delegate = codec;
+		strings = codec.stringTable();
+	}
+
+	/**
+	 * Constructs a new read-only {@code FurballCodec} from the specified codec, specialized for the codec's current format version.
+	 * The format version of the returned codec cannot be changed afterwards.
+	 * @param codec The delegate codec to read from. Its format version must already be set.
+	 * @return The new {@code FurballCodec}.
+	 * @throws UnsupportedOperationException If {@code codec} is write-only.
+	 * @since 2.0.0
+	 */
+	public static FurballCodec forReading(BinaryCodec codec) {
+		codec.checkRead();
+		final byte formatVersion = codec.formatVersion();
+		return formatVersion >= 21 ? new CompressedReader(codec, formatVersion) : new PlainReader(codec, formatVersion);
+	}
+
+	/**
+	 * Constructs a new write-only {@code FurballCodec} from the specified codec, specialized for the codec's current format version.
+	 * The format version of the returned codec cannot be changed afterwards.
+	 * @param codec The delegate codec to write to. Its format version must already be set.
+	 * @return The new {@code FurballCodec}.
+	 * @since 2.0.0
+	 */
+	public static FurballCodec forWriting(BinaryCodec codec) {
+		final byte formatVersion = codec.formatVersion();
+		return formatVersion >= 21 ? new CompressedWriter(codec, formatVersion) : new PlainWriter(codec, formatVersion);
 	}
 
 	@Override
@@ -40,17 +81,55 @@ public class FurballCodec extends BinaryCodec {
 		return delegate.toByteArray();
 	}
 
+	@Override
+	public long write(WritableByteChannel channel) throws IOException {
+		return delegate.write(channel);
+	}
+
+	@Override
+	public int position() {
+		return delegate.position();
+	}
+
+	@Override
+	public boolean hasRemaining() {
+		return delegate.hasRemaining();
+	}
+
+	@Override
+	public byte[] readRemainingBytes() {
+		return delegate.readRemainingBytes();
+	}
+
 	@Override
 	public void checkRead() {
 		delegate.checkRead();
 	}
 
+	@Override
+	public void checkRead(int length) {
+		delegate.checkRead(length);
+		buf = delegate.buffer();
+	}
+
 	@Override
 	public void checkWrite(int length) {
 		delegate.checkWrite(length);
 		buf = delegate.buffer();
 	}
 
+	@Override
+	public void writeBytes(byte[] value) {
+		delegate.writeBytes(value);
+		buf = delegate.buffer();
+	}
+
+	@Override
+	public void writeBytes(ByteBuffer src) {
+		delegate.writeBytes(src);
+		buf = delegate.buffer();
+	}
+
 	@Override
 	public byte formatVersion() {
 		return delegate.formatVersion();
@@ -71,6 +150,12 @@ public class FurballCodec extends BinaryCodec {
 		delegate.setValidate(value);
 	}
 
+	@Override
+	public void setStringTable(@Nullable StringTable value) {
+		delegate.setStringTable(value);
+		strings = value;
+	}
+
 	@Override
 	public void assertDoesNotExist(String key, String message) throws FurblorbParsingException {
 		delegate.assertDoesNotExist(key, message);
@@ -118,4 +203,198 @@ public class FurballCodec extends BinaryCodec {
 		else
 			writeByteArray(value);
 	}
+
+	/**
+	 * A {@code FurballCodec} whose mode and format version are fixed at construction.
+	 * Subclasses only consult the delegate when the current buffer cannot satisfy an operation,
+	 * which relies on the delegate not replacing its buffer behind this codec's back.
+	 */
+	private static abstract class Specialized extends FurballCodec {
+
+		private final byte formatVersion;
+
+		Specialized(BinaryCodec codec, CodecMode mode, byte formatVersion) {
+			super(codec, mode);
+			this.formatVersion = formatVersion;
+		}
+
+		@Override
+		public final byte formatVersion() {
+			return formatVersion;
+		}
+
+		@Override
+		public final void setFormatVersion(byte value) {
+			if (value != formatVersion)
+				throw new UnsupportedOperationException("Cannot change the format version of a specialized FurballCodec (from " + formatVersion + " to " + value + ")");
+		}
+	}
+
+	private static abstract class Reading extends Specialized {
+
+		Reading(BinaryCodec codec, byte formatVersion) {
+			super(codec, CodecMode.READ_ONLY, formatVersion);
+		}
+
+		@Override
+		public final void checkRead() {}
+
+		@Override
+		public final void checkRead(int length) {
+			if (buf.remaining() < length) {
+				delegate.checkRead(length);
+				buf = delegate.buffer();
+			}
+		}
+
+		@Override
+		public final void checkWrite(int length) {
+			throw new UnsupportedOperationException("Codec is read-only");
+		}
+
+		@Override
+		public final void writeBytes(byte[] value) {
+			throw new UnsupportedOperationException("Codec is read-only");
+		}
+
+		@Override
+		public final void writeBytes(ByteBuffer src) {
+			throw new UnsupportedOperationException("Codec is read-only");
+		}
+	}
+
+	private static abstract class Writing extends Specialized {
+
+		Writing(BinaryCodec codec, byte formatVersion) {
+			super(codec, CodecMode.WRITE_ONLY, formatVersion);
+		}
+
+		@Override
+		public final void checkRead() {
+			throw new UnsupportedOperationException("Codec is write-only");
+		}
+
+		@Override
+		public final void checkRead(int length) {
+			throw new UnsupportedOperationException("Codec is write-only");
+		}
+
+		@Override
+		public final void checkWrite(int length) {
+			if (buf.remaining() < length) {
+				delegate.checkWrite(length);
+				buf = delegate.buffer();
+			}
+		}
+	}
+
+	/**
+	 * Reads format versions before 21, in which lengths and compressed {@code int}s are plain {@code int}s.
+	 */
+	private static final class PlainReader extends Reading {
+
+		PlainReader(BinaryCodec codec, byte formatVersion) {
+			super(codec, formatVersion);
+		}
+
+		@Override
+		protected int readLength() {
+			return readInt();
+		}
+
+		@Override
+		public int readCompressedInt(@Nullable String key) {
+			return readInt();
+		}
+
+		@Override
+		public byte @Nullable [] readOptionalByteArray() {
+			final int len = readInt();
+			if (len <= 0) return null;
+			return readBytes(len);
+		}
+	}
+
+	/**
+	 * Reads format version 21 and up, in which lengths and compressed {@code int}s are 7-bit encoded.
+	 */
+	private static final class CompressedReader extends Reading {
+
+		CompressedReader(BinaryCodec codec, byte formatVersion) {
+			super(codec, formatVersion);
+		}
+
+		@Override
+		protected int readLength() {
+			return read7BitInt();
+		}
+
+		@Override
+		public int readCompressedInt(@Nullable String key) {
+			return read7BitInt();
+		}
+
+		@Override
+		public byte @Nullable [] readOptionalByteArray() {
+			final int len = read7BitInt();
+			if (len <= 0) return null;
+			return readBytes(len);
+		}
+	}
+
+	/**
+	 * Writes format versions before 21, in which lengths and compressed {@code int}s are plain {@code int}s.
+	 */
+	private static final class PlainWriter extends Writing {
+
+		PlainWriter(BinaryCodec codec, byte formatVersion) {
+			super(codec, formatVersion);
+		}
+
+		@Override
+		protected void writeLength(int length) {
+			writeInt(length);
+		}
+
+		@Override
+		public void writeCompressedInt(@Nullable String key, int value) {
+			writeInt(value);
+		}
+
+		@Override
+		public void writeOptionalByteArray(byte @Nullable [] value) {
+			if (value == null)
+				writeInt(-1);
+			else
+				writeByteArray(value);
+		}
+	}
+
+	/**
+	 * Writes format version 21 and up, in which lengths and compressed {@code int}s are 7-bit encoded.
+	 */
+	private static final class CompressedWriter extends Writing {
+
+		CompressedWriter(BinaryCodec codec, byte formatVersion) {
+			super(codec, formatVersion);
+		}
+
+		@Override
+		protected void writeLength(int length) {
+			write7BitInt(length);
+		}
+
+		@Override
+		public void writeCompressedInt(@Nullable String key, int value) {
+			write7BitInt(value);
+		}
+
+		@Override
+		public void writeOptionalByteArray(byte @Nullable [] value) {
+			if (value == null)
+				write7BitInt(0);
+			else
+				writeByteArray(value);
+		}
+	}
 }
\ No newline at end of file
@@ -1,17 +1,33 @@
 package net.syntactickitsune.furblorb.finmer.io;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.FurballAssetList;
 import net.syntactickitsune.furblorb.finmer.FurballDependency;
 import net.syntactickitsune.furblorb.finmer.FurballMetadata;
 import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
 import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
 import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.StringTable;
 import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.CodecMode;
+import net.syntactickitsune.furblorb.io.codec.StreamingBinaryCodec;
 
 /**
  * <p>
@@ -23,6 +39,11 @@ import net.syntactickitsune.furblorb.io.codec.CodecMode;
  * <code><pre>
  * Furball furball = new FurballReader(buf).readFurball();</pre></code>
  * </p>
+ * <p>
+ * Assets can optionally be decoded in parallel by {@linkplain #setExecutor(Executor) supplying an executor}.
+ * The result is identical either way.
+ * Alternatively, they can be {@linkplain #setLazy(boolean) decoded lazily}, which is useful when most of them will never be looked at.
+ * </p>
  * @author SyntacticKitsune
  * @see FurballWriter
  */
@@ -36,6 +57,11 @@ public final class FurballReader {
 
 	private final BinaryCodec codec;
 	private FurballCodec decompressedCodec;
+	@Nullable
+	private Executor executor;
+	private boolean lazy;
+	private boolean retainEncoded;
+	private boolean deduplicateStrings;
 
 	/**
 	 * Constructs a new {@code FurballReader} with the specified backing codec.
@@ -66,6 +92,115 @@ public final class FurballReader {
 		codec.buffer().order(ByteOrder.LITTLE_ENDIAN);
 	}
 
+	/**
+	 * Constructs a new {@code FurballReader} that reads directly from a memory-mapped view of the specified file.
+	 * This avoids copying the entire file onto the heap before parsing it.
+	 * @param file The file to read from.
+	 * @throws NullPointerException If {@code file} is {@code null}.
+	 * @throws IOException If an I/O error occurs opening or mapping the file.
+	 * @see BinaryCodec#map(Path)
+	 * @since 2.0.0
+	 */
+	public FurballReader(Path file) throws IOException {
+		this(BinaryCodec.map(file));
+	}
+
+	/**
+	 * Constructs a new {@code FurballReader} that incrementally reads from the specified stream.
+	 * Only a small window of the stream is kept in memory at a time, so this is suitable for piped or very large inputs.
+	 * The stream is not closed by the {@code FurballReader}.
+	 * @param in The stream to read from.
+	 * @throws NullPointerException If {@code in} is {@code null}.
+	 * @see StreamingBinaryCodec
+	 * @since 2.0.0
+	 */
+	public FurballReader(InputStream in) {
+		this(new StreamingBinaryCodec(in));
+	}
+
+	/**
+	 * <p>
+	 * Sets the executor used to decode assets in parallel.
+	 * Since assets are not length-prefixed, the assets are first located by a quick scan that steps over their strings and {@code byte} arrays
+	 * (see {@link FurballSerializables#skip(FurballCodec)}), after which each asset is decoded from its own slice of the data as a separate task.
+	 * The assets are added to the furball in their original order, so the result is identical to decoding them sequentially.
+	 * </p>
+	 * <p>
+	 * Parallel decoding requires the entire furball to be in memory, so it is not used when reading from a {@link StreamingBinaryCodec}
+	 * (unless the furball is compressed, in which case it is decompressed into memory anyway).
+	 * </p>
+	 * @param executor The executor (such as {@link java.util.concurrent.ForkJoinPool#commonPool()}), or {@code null} to decode assets on the calling thread.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FurballReader setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether assets should be decoded lazily.
+	 * In lazy mode, each asset is only located and has its ID, file name and type decoded;
+	 * the rest of it is kept as an {@link EncodedAsset} in the furball's {@linkplain Furball#assets asset list},
+	 * and is only decoded once it is retrieved from the list.
+	 * Assets that are never retrieved are written back out verbatim by {@link FurballWriter}
+	 * (as are retrieved ones, if their {@linkplain #setRetainEncoded(boolean) encoded form is retained}).
+	 * </p>
+	 * <p>
+	 * The encoded assets refer directly to the data being read, which must therefore not be modified afterwards.
+	 * Like {@linkplain #setExecutor(Executor) parallel decoding}, lazy decoding is not used when reading from a {@link StreamingBinaryCodec}.
+	 * If both are enabled, lazy decoding takes precedence.
+	 * </p>
+	 * @param lazy {@code true} to decode assets lazily, {@code false} to decode them immediately.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FurballReader setLazy(boolean lazy) {
+		this.lazy = lazy;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether decoded assets should {@linkplain FurballAsset#encoded() retain} the {@code byte}s they were decoded from.
+	 * {@link FurballWriter} copies such assets verbatim rather than re-encoding them, unless they have been modified
+	 * (which is detected by {@linkplain EncodedAsset#matches(FurballAsset) comparing hash codes}) or {@linkplain FurballAsset#markDirty() marked dirty}.
+	 * This makes read &rarr; small edit &rarr; write pipelines considerably cheaper.
+	 * </p>
+	 * <p>
+	 * Like {@linkplain #setLazy(boolean) lazily-read assets}, the retained {@code byte}s refer directly to the data being read,
+	 * which must therefore not be modified afterwards.
+	 * Encoded assets cannot be retained when reading from a {@link StreamingBinaryCodec}.
+	 * </p>
+	 * @param retainEncoded {@code true} to retain each asset's encoded form, {@code false} otherwise.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FurballReader setRetainEncoded(boolean retainEncoded) {
+		this.retainEncoded = retainEncoded;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether repeated strings should be deduplicated while reading.
+	 * Each {@linkplain #readFurball() read} then decodes its strings against a fresh {@link StringTable},
+	 * so that short strings which occur many times over (variable names, property keys and the like) share a single instance.
+	 * This costs a little decoding time, but reduces the memory retained by the read furball.
+	 * </p>
+	 * <p>
+	 * {@linkplain #setLazy(boolean) Lazily-decoded assets} keep the table, and deduplicate against it whenever they are decoded.
+	 * </p>
+	 * @param deduplicateStrings {@code true} to deduplicate strings, {@code false} otherwise.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FurballReader setDeduplicateStrings(boolean deduplicateStrings) {
+		this.deduplicateStrings = deduplicateStrings;
+		return this;
+	}
+
 	/**
 	 * Checks to make sure the specified format version is supported by Furblorb's API.
 	 * @param formatVersion The format version to check.
@@ -83,12 +218,21 @@ public final class FurballReader {
 	 * The position of the codec after this method returns successfully will be at the end of the metadata block.
 	 * Unless the codec is repositioned, it is generally inadvisable to {@linkplain #readFurball() read a furball} in this state,
 	 * since it will attempt to re-read the metadata.
+	 * For compressed furballs (format version 21 and up), only as much data as is needed to read the metadata is decompressed.
 	 * @return The read metadata.
 	 * @throws FurblorbParsingException If the data does not represent a furball or if some other parsing error occurs.
 	 * @throws UnsupportedFormatVersionException If the furball described by the data has a format version that cannot be read by this {@code FurballReader}.
 	 * @see #readFurball()
 	 */
 	public FurballMetadata readMetadata() throws FurblorbParsingException, UnsupportedFormatVersionException {
+		return readMetadata(false);
+	}
+
+	/**
+	 * Reads the metadata, setting up {@link #decompressedCodec} in the process.
+	 * @param inMemory Whether the decompressed data must be entirely in memory, rather than streamed.
+	 */
+	private FurballMetadata readMetadata(boolean inMemory) {
 		// Check magic:
 		for (int i = 0; i < MAGIC.length; i++) {
 			final byte b = codec.readByte();
@@ -102,14 +246,33 @@ public final class FurballReader {
 		codec.setFormatVersion(formatVersion);
 
 		// In format version 21, furballs are GZIP-compressed, so we may need to swap the codec.
-		// (This code is also used in readFurball().)
-		decompressedCodec = new FurballCodec(codec);
+		// Unless everything is needed up front, the data is inflated as it is read, so that no more of it is decompressed
+		// (or held in memory) than necessary.
+		decompressedCodec = FurballCodec.forReading(codec);
 		if (formatVersion >= 21) {
-			final byte[] bytes = codec.readBytes(codec.buffer().remaining());
-			final BinaryCodec decompressedBinCodec = new BinaryCodec(FurblorbUtil.decompress(bytes), CodecMode.READ_ONLY);
+			final BinaryCodec decompressedBinCodec;
+			if (inMemory) {
+				final byte[] decompressed;
+				if (codec instanceof StreamingBinaryCodec)
+					decompressed = FurblorbUtil.decompress(codec.readRemainingBytes());
+				else {
+					// Inflate straight out of the codec's buffer, rather than copying the compressed data out first.
+					final ByteBuffer compressed = codec.buffer().slice();
+					decompressed = FurblorbUtil.decompress(compressed);
+					codec.skipBytes(compressed.position());
+				}
+
+				decompressedBinCodec = new BinaryCodec(decompressed, CodecMode.READ_ONLY);
+			} else
+				try {
+					decompressedBinCodec = new StreamingBinaryCodec(new GZIPInputStream(codec.asInputStream(), StreamingBinaryCodec.DEFAULT_WINDOW_SIZE));
+				} catch (IOException e) {
+					throw new FurblorbParsingException("Malformed GZIP header", e);
+				}
+
 			decompressedBinCodec.setFormatVersion(formatVersion);
 			decompressedBinCodec.setValidate(codec.validate());
-			decompressedCodec = new FurballCodec(decompressedBinCodec);
+			decompressedCodec = FurballCodec.forReading(decompressedBinCodec);
 		}
 
 		return new FurballMetadata(decompressedCodec, formatVersion);
@@ -123,21 +286,41 @@ public final class FurballReader {
 	 * @throws UnsupportedFormatVersionException If the furball described by the data has a format version that cannot be read by this {@code FurballReader}.
 	 */
 	public Furball readFurball() throws FurblorbParsingException, UnsupportedFormatVersionException {
-		final FurballMetadata meta = readMetadata();
+		// Locating assets (for lazy or parallel decoding, or to retain their encoded form) requires the data to be in memory,
+		// so compressed data is only streamed if none of that is happening.
+		final FurballMetadata meta = readMetadata(lazy || executor != null || retainEncoded);
 		final Furball ret = new Furball(meta);
+		if (deduplicateStrings)
+			decompressedCodec.setStringTable(new StringTable());
 
 		final int depCount = decompressedCodec.readInt(); // Note: not a 7-bit int!
 		for (int i = 0; i < depCount; i++)
 			ret.dependencies.add(decompressedCodec.readObject(FurballDependency::new));
 
 		final int assetCount = decompressedCodec.readInt();
+		final boolean sliceable = !(decompressedCodec.delegate instanceof StreamingBinaryCodec);
+		if (sliceable) {
+			if (lazy) {
+				readAssetsLazily(ret.assets, assetCount);
+				return ret;
+			}
+
+			if (executor != null) {
+				readAssetsInParallel(ret.assets, assetCount, executor);
+				return ret;
+			}
+		}
+
 		for (int i = 0; i < assetCount; i++) {
+			final int start = decompressedCodec.position();
 			FurballAsset asset;
 			try {
 				asset = FurballSerializables.read(decompressedCodec);
+				if (retainEncoded && sliceable)
+					retain(asset, new AssetEntry(start, decompressedCodec.position() - start, asset.metadata().id()));
 			} catch (Exception e) {
 				asset = null;
-				System.err.println("At position " + codec.position() + ":");
+				System.err.println("At position " + decompressedCodec.position() + ":");
 				e.printStackTrace();
 
 				if (assetCount > i)
@@ -148,6 +331,110 @@ public final class FurballReader {
 			ret.assets.add(asset);
 		}
 
+		if (meta.formatVersion >= 21 && !sliceable)
+			drainCompressed();
+
 		return ret;
 	}
+
+	/**
+	 * Reads whatever is left of a streamed, compressed body, so that {@link GZIPInputStream} reaches and checks the GZIP trailer.
+	 * Without this, a corrupted body could go unnoticed, since the CRC and size in the trailer are only checked at the end of the stream.
+	 */
+	private void drainCompressed() {
+		try {
+			decompressedCodec.delegate.readRemainingBytes();
+		} catch (UncheckedIOException e) {
+			if (e.getCause() instanceof ZipException ze)
+				throw new FurblorbParsingException("Malformed GZIP data", ze);
+			throw e;
+		}
+	}
+
+	/**
+	 * Locates each asset, so that they can be decoded independently of one another.
+	 * The codec is left positioned after the last asset that could be located.
+	 */
+	private List<AssetEntry> indexAssets(int assetCount) {
+		final List<AssetEntry> index = new ArrayList<>(assetCount);
+		for (int i = 0; i < assetCount; i++) {
+			final int start = decompressedCodec.position();
+			try {
+				final int typeId = FurballSerializables.skip(decompressedCodec).id();
+				index.add(new AssetEntry(start, decompressedCodec.position() - start, typeId));
+			} catch (Exception e) {
+				System.err.println("At position " + decompressedCodec.position() + ":");
+				e.printStackTrace();
+
+				if (assetCount > i)
+					System.err.println("Skipping " + (assetCount - i) + " assets!");
+				break;
+			}
+		}
+
+		return index;
+	}
+
+	private ByteBuffer slice(AssetEntry entry) {
+		final ByteBuffer data = decompressedCodec.buffer();
+		return data.slice(entry.offset, entry.length).order(data.order());
+	}
+
+	private void retain(FurballAsset asset, AssetEntry entry) {
+		asset.setEncoded(new EncodedAsset(asset, slice(entry), decompressedCodec.formatVersion(), decompressedCodec.validate(), decompressedCodec.stringTable()));
+	}
+
+	private void readAssetsLazily(FurballAssetList assets, int assetCount) {
+		final byte formatVersion = decompressedCodec.formatVersion();
+		final boolean validate = decompressedCodec.validate();
+		final StringTable strings = decompressedCodec.stringTable();
+
+		for (AssetEntry entry : indexAssets(assetCount))
+			assets.addEncoded(new EncodedAsset(slice(entry), formatVersion, validate, retainEncoded, strings));
+	}
+
+	private void readAssetsInParallel(List<FurballAsset> assets, int assetCount, Executor executor) {
+		final List<AssetEntry> index = indexAssets(assetCount);
+
+		final byte formatVersion = decompressedCodec.formatVersion();
+		final boolean validate = decompressedCodec.validate();
+		final StringTable strings = decompressedCodec.stringTable();
+
+		final List<CompletableFuture<FurballAsset>> futures = new ArrayList<>(index.size());
+		for (AssetEntry entry : index) {
+			final ByteBuffer slice = slice(entry);
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				final BinaryCodec assetCodec = new BinaryCodec(slice, CodecMode.READ_ONLY);
+				assetCodec.setFormatVersion(formatVersion);
+				assetCodec.setValidate(validate);
+				assetCodec.setStringTable(strings);
+				return FurballSerializables.read(FurballCodec.forReading(assetCodec));
+			}, executor));
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			final FurballAsset asset;
+			try {
+				asset = futures.get(i).join();
+			} catch (CompletionException e) {
+				futures.forEach(future -> future.cancel(false));
+				System.err.println("At position " + index.get(i).offset + ":");
+				e.getCause().printStackTrace();
+
+				System.err.println("Skipping " + (assetCount - i) + " assets!");
+				break;
+			}
+
+			if (retainEncoded) retain(asset, index.get(i));
+			assets.add(asset);
+		}
+	}
+
+	/**
+	 * The location of an asset within the (decompressed) furball data.
+	 * @param offset The offset of the asset, including its type ID.
+	 * @param length The encoded length of the asset, in {@code byte}s.
+	 * @param typeId The {@linkplain FurballSerializables.Metadata#id() type ID} of the asset.
+	 */
+	private static record AssetEntry(int offset, int length, int typeId) {}
 }
\ No newline at end of file
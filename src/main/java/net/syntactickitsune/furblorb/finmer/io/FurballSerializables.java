@@ -1,14 +1,10 @@
 package net.syntactickitsune.furblorb.finmer.io;
 
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.Nullable;
@@ -19,6 +15,7 @@ import net.syntactickitsune.furblorb.io.Decoder;
 /**
  * <p>
  * A reimplementation of Finmer's {@code AssetSerializer} class, or at least, the reflective part of it.
+ * (Although here, the reflective part is done ahead of time by an annotation processor.)
  * </p>
  * <p>
  * {@code FurballSerializables} tracks all of the {@link IFurballSerializable} classes that are annotated
@@ -32,40 +29,40 @@ public final class FurballSerializables {
 	private static final Map<String, Metadata<?>> SERIALIZABLES_BY_TYPE = new LinkedHashMap<>();
 	private static final Map<Class<?>, Metadata<?>> SERIALIZABLES_BY_CLASS = new IdentityHashMap<>();
 
+	// Hot-path lookup structures, built from the maps above once registration is done.
+	private static final IdTable ID_TABLE;
+	private static final ClassValue<Metadata<?>> METADATA_BY_CLASS = new ClassValue<>() {
+		@Override
+		protected Metadata<?> computeValue(Class<?> type) {
+			return SERIALIZABLES_BY_CLASS.get(type);
+		}
+	};
+
 	static {
-		final List<String> targets = FurblorbUtil.readStringResource("/serializables.txt");
-		// Time for some extremely exciting reflection.
-		for (String target : targets)
-			try {
-				final Class<?> cls = Class.forName(target);
-				final RegisterSerializable rs = Objects.requireNonNull(cls.getAnnotation(RegisterSerializable.class), () -> target + " is missing a RegisterSerializable annotation!");
-				final int id = FurblorbUtil.hash(rs.value());
-
-				// Ready for the spicy part?
-				final java.lang.reflect.Constructor<?> reflectCtor = cls.getDeclaredConstructor(Decoder.class);
-				final MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(reflectCtor);
-
-				final Constructor<?> ctor = dec -> {
-					try {
-						return (IFurballSerializable) handle.invoke(dec);
-					} catch (Throwable e) {
-						return FurblorbUtil.throwAsUnchecked(e);
-					}
-				};
-
-				final byte minFormatVersion = rs.since() == 0 ? 19 : (byte) rs.since();
-				final byte maxFormatVersion = rs.until() == 0 ? Byte.MAX_VALUE : (byte) rs.until();
-
-				register(id, rs.value(), (Class) cls, ctor, minFormatVersion, maxFormatVersion);
-			} catch (Exception e) {
-				throw new IllegalStateException("Failed to register " + target, e);
-			}
+		// The registration calls are generated at compile time from the RegisterSerializable annotations.
+		// See SerializableRegistryProcessor.
+		GeneratedSerializables.registerAll();
+
+		ID_TABLE = new IdTable(SERIALIZABLES_BY_ID.values());
 	}
 
-	private static <T extends IFurballSerializable> void register(int id, String name, Class<T> clazz, Constructor<T> ctor, byte minFormatVersion, byte maxFormatVersion) {
+	/**
+	 * Registers the specified {@link IFurballSerializable} class.
+	 * This is only called by the generated registry.
+	 * @param name The C# class name, as given by {@link RegisterSerializable#value()}.
+	 * @param clazz The class.
+	 * @param ctor The class' {@code Decoder} constructor.
+	 * @param since See {@link RegisterSerializable#since()}.
+	 * @param until See {@link RegisterSerializable#until()}.
+	 */
+	static <T extends IFurballSerializable> void register(String name, Class<T> clazz, Constructor<T> ctor, int since, int until) {
+		final int id = FurblorbUtil.hash(name);
 		if (SERIALIZABLES_BY_ID.containsKey(id))
 			throw new IllegalArgumentException("Cannot register " + clazz.getName() + " under id " + id + ", as it is already owned by " + SERIALIZABLES_BY_ID.get(id).owner.getName());
 
+		final byte minFormatVersion = since == 0 ? 19 : (byte) since;
+		final byte maxFormatVersion = until == 0 ? Byte.MAX_VALUE : (byte) until;
+
 		final Metadata<T> meta = new Metadata<>(id, name, ctor, clazz, minFormatVersion, maxFormatVersion);
 
 		SERIALIZABLES_BY_ID.put(id, meta);
@@ -81,7 +78,7 @@ public final class FurballSerializables {
 	@Internal
 	@Nullable
 	public static Metadata<?> lookupById(int id) {
-		return SERIALIZABLES_BY_ID.get(id);
+		return ID_TABLE.get(id);
 	}
 
 	/**
@@ -103,7 +100,7 @@ public final class FurballSerializables {
 	@Internal
 	@Nullable
 	public static Metadata<?> lookupByClass(Class<? extends IFurballSerializable> clazz) {
-		return SERIALIZABLES_BY_CLASS.get(clazz);
+		return METADATA_BY_CLASS.get(clazz);
 	}
 
 	/**
@@ -140,6 +137,74 @@ public final class FurballSerializables {
 		return (T) md.ctor._new(in);
 	}
 
+	/**
+	 * <p>
+	 * Advances the given codec past the next {@link IFurballSerializable} without fully decoding it.
+	 * </p>
+	 * <p>
+	 * Furball data is not length-prefixed, so this still walks the serializable's structure,
+	 * but strings and {@code byte} arrays are stepped over rather than decoded, which makes it considerably cheaper than {@link #read(Decoder)}.
+	 * This makes it useful for locating objects within furball data.
+	 * </p>
+	 * @param in The codec to advance.
+	 * @return The metadata of the skipped {@code IFurballSerializable}.
+	 * @throws UnknownSerializableException If the next ID read from the codec does not represent a known {@code IFurballSerializable} implementation.
+	 * @throws NullPointerException If {@code in} is {@code null}.
+	 * @since 2.0.0
+	 */
+	public static Metadata<?> skip(FurballCodec in) {
+		final FurballCodec skipper = new SkippingFurballCodec(in.delegate);
+
+		final int id = skipper.readInt("!Type");
+		final Metadata<?> md = lookupById(id);
+		if (md == null)
+			throw new UnknownSerializableException(id);
+
+		md.ctor._new(skipper);
+		return md;
+	}
+
+	/**
+	 * An open-addressing hash table from serializable ID to metadata.
+	 * The IDs are only ever looked up (never added to or removed) after construction, so a simple linear probe
+	 * over a half-empty table avoids both the boxing and the node chasing of a {@code HashMap<Integer, ...>}.
+	 */
+	private static final class IdTable {
+
+		private final int[] ids;
+		private final Metadata<?>[] values;
+		private final int shift;
+
+		IdTable(Collection<Metadata<?>> metadata) {
+			final int capacity = Integer.highestOneBit(Math.max(metadata.size(), 1) * 2 - 1) << 1; // At most half full.
+			ids = new int[capacity];
+			values = new Metadata<?>[capacity];
+			shift = 32 - Integer.numberOfTrailingZeros(capacity);
+
+			for (Metadata<?> meta : metadata) {
+				int i = index(meta.id());
+				while (values[i] != null)
+					i = (i + 1) & (ids.length - 1);
+
+				ids[i] = meta.id();
+				values[i] = meta;
+			}
+		}
+
+		private int index(int id) {
+			return (id * 0x9E3779B9) >>> shift; // Fibonacci hashing, to spread out similar IDs.
+		}
+
+		@Nullable
+		Metadata<?> get(int id) {
+			for (int i = index(id); values[i] != null; i = (i + 1) & (ids.length - 1))
+				if (ids[i] == id)
+					return values[i];
+
+			return null;
+		}
+	}
+
 	/**
 	 * Contains all of the metadata that {@link FurballSerializables} tracks about each {@link IFurballSerializable}.
 	 *
@@ -1,14 +1,30 @@
 package net.syntactickitsune.furblorb.finmer.io;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.FurballAssetList;
 import net.syntactickitsune.furblorb.finmer.FurballDependency;
 import net.syntactickitsune.furblorb.finmer.FurballMetadata;
 import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
 import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
 import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.CodecMode;
+import net.syntactickitsune.furblorb.io.codec.FlushingBinaryCodec;
+import net.syntactickitsune.furblorb.io.codec.SegmentedBinaryCodec;
 
 /**
  * <p>
@@ -20,12 +36,31 @@ import net.syntactickitsune.furblorb.io.codec.CodecMode;
  * <code><pre>
  * byte[] bytes = new FurballWriter().write(furball).toByteArray();</pre></code>
  * </p>
+ * <p>
+ * Assets can optionally be encoded in parallel by {@linkplain #setExecutor(Executor) supplying an executor}.
+ * The output is identical either way.
+ * Assets that are still {@linkplain EncodedAsset encoded} (such as those {@linkplain FurballReader#setLazy(boolean) read lazily} and never accessed)
+ * or that {@linkplain FurballAsset#encoded() retain their encoded form} are copied verbatim instead of being re-encoded,
+ * provided they were encoded with the same format version as the furball being written.
+ * </p>
+ * <p>
+ * Compressed furballs (format version 21 and up) are compressed as they are written, so the uncompressed data is never held in memory in full.
+ * Combined with a {@link FlushingBinaryCodec}, which is flushed once the furball has been written, this allows writing a furball straight to a file:
+ * <code><pre>
+ * try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+ *     new FurballWriter(new FlushingBinaryCodec(channel)).write(furball);
+ * }</pre></code>
+ * </p>
  * @author SyntacticKitsune
  * @see FurballReader
  */
 public final class FurballWriter {
 
 	private final BinaryCodec codec;
+	@Nullable
+	private Executor executor;
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private boolean parallelCompression;
 
 	/**
 	 * Constructs a new {@code FurballWriter} with the specified backing codec.
@@ -42,6 +77,58 @@ public final class FurballWriter {
 		this(new BinaryCodec(CodecMode.WRITE_ONLY));
 	}
 
+	/**
+	 * <p>
+	 * Sets the executor used to encode assets in parallel.
+	 * Each asset is encoded into its own buffer as a separate task, and the buffers are then written out in the original order,
+	 * so the output is byte-for-byte identical to encoding the assets sequentially.
+	 * </p>
+	 * <p>
+	 * Assets must not be modified while they are being written.
+	 * </p>
+	 * @param executor The executor (such as {@link java.util.concurrent.ForkJoinPool#commonPool()}), or {@code null} to encode assets on the calling thread.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FurballWriter setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets the compression level used for compressed furballs (format version 21 and up).
+	 * The default level produces the same output as Finmer's editor.
+	 * @param level The compression level, from {@code 0} to {@code 9}, or {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @return {@code this}.
+	 * @throws IllegalArgumentException If the compression level is invalid.
+	 * @since 2.0.0
+	 */
+	public FurballWriter setCompressionLevel(int level) {
+		if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+			throw new IllegalArgumentException("Invalid compression level: " + level);
+		compressionLevel = level;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether compressed furballs (format version 21 and up) should be compressed in parallel,
+	 * using the {@linkplain #setExecutor(Executor) executor} (or {@link java.util.concurrent.ForkJoinPool#commonPool()} if there is none).
+	 * See {@link FurblorbUtil#compress(byte[], int, Executor)} for details.
+	 * </p>
+	 * <p>
+	 * Parallel compression produces equally valid (and almost equally small) output, but not the exact {@code byte}s that sequential compression does.
+	 * It also requires the entire uncompressed furball to be held in memory, which sequential compression avoids.
+	 * </p>
+	 * @param parallelCompression {@code true} to compress in parallel, {@code false} to compress on the calling thread.
+	 * @return {@code this}.
+	 * @since 2.0.0
+	 */
+	public FurballWriter setParallelCompression(boolean parallelCompression) {
+		this.parallelCompression = parallelCompression;
+		return this;
+	}
+
 	/**
 	 * Checks to make sure the specified format version is supported by Furblorb's API.
 	 * @param formatVersion The format version to check.
@@ -56,6 +143,7 @@ public final class FurballWriter {
 
 	/**
 	 * Writes the specified {@code Furball} to the {@code FurballWriter}'s backing buffer.
+	 * If the backing codec is a {@link FlushingBinaryCodec}, it is {@linkplain FlushingBinaryCodec#flush() flushed} afterwards.
 	 * @param furball The furball to write.
 	 * @return {@code this}.
 	 * @throws UnsupportedFormatVersionException If the furball has a format version that cannot be written by this {@code FurballWriter}.
@@ -73,30 +161,86 @@ public final class FurballWriter {
 		codec.writeByte(furball.meta.formatVersion);
 
 		// In format version 21, furballs are GZIP-compressed.
-		// But we try to avoid allocating another codec if we can avoid it.
-		final FurballCodec compressedCodec;
-		if (furball.meta.formatVersion >= 21) {
-			final BinaryCodec compressedBinCodec = new BinaryCodec(CodecMode.WRITE_ONLY);
+		// Unless compressing in parallel (which needs all of the data up front), the body is streamed through the compressor straight into the codec.
+		if (furball.meta.formatVersion < 21)
+			writeBody(furball, FurballCodec.forWriting(codec));
+		else if (parallelCompression) {
+			final BinaryCodec compressedBinCodec = new SegmentedBinaryCodec();
 			compressedBinCodec.setFormatVersion(codec.formatVersion());
 			compressedBinCodec.setValidate(codec.validate());
-			compressedCodec = new FurballCodec(compressedBinCodec);
+			writeBody(furball, FurballCodec.forWriting(compressedBinCodec));
+
+			final Executor compressionExecutor = Objects.requireNonNullElseGet(executor, ForkJoinPool::commonPool);
+			codec.writeBytes(FurblorbUtil.compress(compressedBinCodec.toByteArray(), compressionLevel, compressionExecutor));
 		} else
-			compressedCodec = new FurballCodec(codec);
+			try (OutputStream out = FurblorbUtil.compressingStream(codec.asOutputStream(), compressionLevel)) {
+				final FlushingBinaryCodec compressedBinCodec = new FlushingBinaryCodec(out);
+				compressedBinCodec.setFormatVersion(codec.formatVersion());
+				compressedBinCodec.setValidate(codec.validate());
+				writeBody(furball, FurballCodec.forWriting(compressedBinCodec));
+				compressedBinCodec.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
 
-		furball.meta.write(compressedCodec, false);
+		if (codec instanceof FlushingBinaryCodec flushing)
+			flushing.flush();
 
-		compressedCodec.writeInt(furball.dependencies.size());
+		return this;
+	}
+
+	private void writeBody(Furball furball, FurballCodec codec) {
+		furball.meta.write(codec, false);
+
+		codec.writeInt(furball.dependencies.size());
 		for (FurballDependency dep : furball.dependencies)
-			compressedCodec.writeObject(dep, FurballDependency::write);
+			codec.writeObject(dep, FurballDependency::write);
 
-		compressedCodec.writeInt(furball.assets.size());
-		for (FurballAsset asset : furball.assets)
-			compressedCodec.writeObject(asset, FurballAsset::writeWithId);
+		codec.writeInt(furball.assets.size());
+		if (executor == null)
+			for (int i = 0; i < furball.assets.size(); i++) {
+				final EncodedAsset encoded = furball.assets.encoded(i);
+				if (encoded != null && encoded.formatVersion() == codec.formatVersion())
+					codec.writeBytes(encoded.data());
+				else
+					codec.writeObject(furball.assets.isMaterialized(i) ? furball.assets.get(i) : encoded.decode(), FurballAsset::writeWithId);
+			}
+		else
+			writeAssetsInParallel(furball.assets, codec, executor);
+	}
 
-		if (furball.meta.formatVersion >= 21)
-			codec.writeBytes(FurblorbUtil.compress(compressedCodec.toByteArray()));
+	private static void writeAssetsInParallel(FurballAssetList assets, FurballCodec codec, Executor executor) {
+		final byte formatVersion = codec.formatVersion();
+		final boolean validate = codec.validate();
 
-		return this;
+		final List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>(assets.size());
+		for (int i = 0; i < assets.size(); i++) {
+			final EncodedAsset encoded = assets.encoded(i);
+			if (encoded != null && encoded.formatVersion() == formatVersion) {
+				futures.add(CompletableFuture.completedFuture(encoded.data()));
+				continue;
+			}
+
+			// Retrieve the asset here rather than in the task, since FurballAssetList is not thread-safe.
+			final FurballAsset asset = assets.isMaterialized(i) ? assets.get(i) : null;
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				final BinaryCodec assetCodec = new BinaryCodec(CodecMode.WRITE_ONLY);
+				assetCodec.setFormatVersion(formatVersion);
+				assetCodec.setValidate(validate);
+				FurballCodec.forWriting(assetCodec).writeObject(asset != null ? asset : encoded.decode(), FurballAsset::writeWithId);
+				return assetCodec.buffer().flip();
+			}, executor));
+		}
+
+		try {
+			for (CompletableFuture<ByteBuffer> future : futures)
+				codec.writeBytes(future.join());
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(false));
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			if (e.getCause() instanceof Error err) throw err;
+			throw e;
+		}
 	}
 
 	/**
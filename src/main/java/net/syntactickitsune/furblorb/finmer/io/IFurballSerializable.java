@@ -58,9 +58,9 @@ public interface IFurballSerializable {
 			throw new IllegalFormatVersionException(meta.maxFormatVersion(), to.formatVersion(), "serialize " + getClass().getSimpleName());
 
 		if (to.writeCompressedTypes())
-			to.writeInt("!Type", metadata().id());
+			to.writeInt("!Type", meta.id());
 		else
-			to.writeString("!Type", metadata().name());
+			to.writeString("!Type", meta.name());
 
 		write(to);
 	}
@@ -0,0 +1,251 @@
+package net.syntactickitsune.furblorb.finmer.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
+import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
+import net.syntactickitsune.furblorb.io.ExternalFileHandler;
+import net.syntactickitsune.furblorb.io.StringTable;
+import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
+import net.syntactickitsune.furblorb.io.codec.CodecMode;
+import net.syntactickitsune.furblorb.io.codec.FlushingBinaryCodec;
+
+/**
+ * <p>
+ * A {@code ProjectBuildCache} remembers the {@linkplain EncodedAsset encoded form} of each asset of a Finmer project,
+ * so that {@link FinmerProjectReader} can skip parsing (and {@link FurballWriter} can skip encoding) assets that have not changed since the last time the project was read.
+ * </p>
+ * <p>
+ * Each asset is cached under the name of its JSON file, along with the SHA-256 hashes of that file and of every external file (scripts, images and so on) read while parsing it.
+ * An entry is only used if all of those files still have the same contents and the project still has the same format version; otherwise the asset is parsed as normal and the entry is replaced.
+ * Entries for assets that were not read since the cache was {@linkplain #open(Path) opened} are dropped when it is {@linkplain #save() saved}.
+ * </p>
+ * <p>
+ * Using a build cache looks like:
+ * <code><pre>
+ * ProjectBuildCache cache = ProjectBuildCache.open(cacheFile);
+ * Furball furball = new FinmerProjectReader(externalFiles).setBuildCache(cache).readFurball();
+ * cache.save();</pre></code>
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ * @see FinmerProjectReader#setBuildCache(ProjectBuildCache)
+ */
+public final class ProjectBuildCache {
+
+	private static final byte[] MAGIC = { 'F', 'B', 'C', 'A', 'C', 'H', 'E' };
+
+	/**
+	 * The version of the cache file format.
+	 * This must be bumped whenever the binary encoding of any asset changes, since stale entries would otherwise be reused.
+	 */
+	private static final int VERSION = 1;
+
+	private final Path file;
+	private final Map<String, Entry> previous;
+	private final Map<String, Entry> current = new ConcurrentHashMap<>();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	private ProjectBuildCache(Path file, Map<String, Entry> previous) {
+		this.file = file;
+		this.previous = previous;
+	}
+
+	/**
+	 * Opens the build cache stored in the specified file.
+	 * If the file does not exist, is corrupt, or was written by an incompatible version of Furblorb, the returned cache is empty.
+	 * @param file The cache file.
+	 * @return The build cache.
+	 * @throws IOException If an I/O error occurs reading the file.
+	 * @throws NullPointerException If {@code file} is {@code null}.
+	 */
+	public static ProjectBuildCache open(Path file) throws IOException {
+		Objects.requireNonNull(file, "file");
+
+		final byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(file);
+		} catch (NoSuchFileException e) {
+			return new ProjectBuildCache(file, Map.of());
+		}
+
+		try {
+			return new ProjectBuildCache(file, read(new BinaryCodec(bytes, CodecMode.READ_ONLY)));
+		} catch (RuntimeException e) { // A corrupt cache is just an empty one.
+			return new ProjectBuildCache(file, Map.of());
+		}
+	}
+
+	private static Map<String, Entry> read(BinaryCodec in) {
+		if (!Arrays.equals(in.readBytes(MAGIC.length), MAGIC) || in.readInt() != VERSION)
+			return Map.of();
+
+		final int count = in.readInt();
+		final Map<String, Entry> entries = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			final String filename = in.readString();
+			final byte[] hash = in.readBytes(32);
+
+			final int externalCount = in.readInt();
+			final Map<String, byte[]> externals = new LinkedHashMap<>();
+			for (int j = 0; j < externalCount; j++)
+				externals.put(in.readString(), in.readBoolean() ? in.readBytes(32) : null);
+
+			final byte formatVersion = in.readByte();
+			entries.put(filename, new Entry(hash, externals, formatVersion, ByteBuffer.wrap(in.readByteArray()).order(in.buffer().order())));
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Writes the entries used since the cache was opened back to the cache file.
+	 * The file is replaced atomically (where supported), so an interrupted save leaves the previous cache intact.
+	 * @throws IOException If an I/O error occurs writing the file.
+	 */
+	public void save() throws IOException {
+		final Path parent = file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+
+		final Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				final FlushingBinaryCodec out = new FlushingBinaryCodec(channel, 64 * 1024);
+				out.writeBytes(MAGIC);
+				out.writeInt(VERSION);
+
+				final Map<String, Entry> entries = new TreeMap<>(current);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Entry> e : entries.entrySet()) {
+					final Entry entry = e.getValue();
+					out.writeString(e.getKey());
+					out.writeBytes(entry.hash);
+
+					out.writeInt(entry.externals.size());
+					entry.externals.forEach((filename, hash) -> {
+						out.writeString(filename);
+						out.writeBoolean(hash != null);
+						if (hash != null) out.writeBytes(hash);
+					});
+
+					out.writeByte(entry.formatVersion);
+					out.writeInt(entry.data.remaining());
+					out.writeBytes(entry.data);
+				}
+
+				out.flush();
+			}
+
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @return The number of assets found in the cache since it was opened.
+	 */
+	public int hits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of assets that had to be parsed since the cache was opened.
+	 */
+	public int misses() {
+		return misses.get();
+	}
+
+	/**
+	 * Looks up the specified asset, checking that neither it nor any of its external files have changed.
+	 * @param filename The name of the asset's JSON file.
+	 * @param json The contents of the asset's JSON file.
+	 * @param formatVersion The format version of the project.
+	 * @param externalFiles The external file handler to check the asset's external files with.
+	 * @param strings The table to deduplicate strings against when the asset is decoded, or {@code null}.
+	 * @return The cached asset, or {@code null} if there is no (up-to-date) entry for it.
+	 */
+	@Nullable
+	EncodedAsset lookup(String filename, byte[] json, byte formatVersion, ExternalFileHandler externalFiles, @Nullable StringTable strings) {
+		final Entry entry = previous.get(filename);
+		if (entry != null && entry.formatVersion == formatVersion && Arrays.equals(entry.hash, hash(json)) && externalsMatch(entry, externalFiles))
+			try {
+				final EncodedAsset asset = new EncodedAsset(entry.data, formatVersion, true, true, strings);
+				current.put(filename, entry);
+				hits.incrementAndGet();
+				return asset;
+			} catch (RuntimeException e) {
+				// The entry is corrupt (or refers to an asset type that no longer exists), so treat it as missing.
+			}
+
+		misses.incrementAndGet();
+		return null;
+	}
+
+	private static boolean externalsMatch(Entry entry, ExternalFileHandler externalFiles) {
+		for (Map.Entry<String, byte[]> e : entry.externals.entrySet()) {
+			final byte[] contents = externalFiles.readExternalFile(e.getKey());
+			if (contents == null ? e.getValue() != null : e.getValue() == null || !Arrays.equals(e.getValue(), hash(contents)))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Caches the specified freshly-parsed asset, encoding it in the process.
+	 * The asset then {@linkplain FurballAsset#encoded() retains} its encoded form, so it is not encoded a second time when written.
+	 * @param filename The name of the asset's JSON file.
+	 * @param json The contents of the asset's JSON file.
+	 * @param externals The external files read while parsing the asset, and their contents (or {@code null} for those that didn't exist).
+	 * @param asset The asset.
+	 * @param formatVersion The format version of the project.
+	 * @param strings The table to deduplicate strings against when the asset is decoded again, or {@code null}.
+	 */
+	void store(String filename, byte[] json, Map<String, byte @Nullable []> externals, FurballAsset asset, byte formatVersion, @Nullable StringTable strings) {
+		final BinaryCodec codec = new BinaryCodec(CodecMode.WRITE_ONLY);
+		codec.setFormatVersion(formatVersion);
+		FurballCodec.forWriting(codec).writeObject(asset, FurballAsset::writeWithId);
+		final ByteBuffer data = codec.buffer().flip();
+
+		final Map<String, byte[]> externalHashes = new LinkedHashMap<>();
+		externals.forEach((name, contents) -> externalHashes.put(name, contents == null ? null : hash(contents)));
+
+		asset.setEncoded(new EncodedAsset(asset, data, formatVersion, true, strings));
+		current.put(filename, new Entry(hash(json), externalHashes, formatVersion, data));
+	}
+
+	private static byte[] hash(byte[] contents) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(contents);
+		} catch (NoSuchAlgorithmException e) { // Every Java platform is required to support SHA-256.
+			return FurblorbUtil.throwAsUnchecked(e);
+		}
+	}
+
+	private static record Entry(byte[] hash, Map<String, byte @Nullable []> externals, byte formatVersion, ByteBuffer data) {}
+}
\ No newline at end of file
@@ -10,9 +10,9 @@ import java.lang.annotation.Target;
  * Indicates that an {@link IFurballSerializable} class should be an registered to the {@linkplain FurballSerializables serializable manager}.
  * </p>
  * <p>
- * {@code RegisterSerializable} does not register these itself -- instead, {@link FurballSerializables} reads the file {@code serializables.txt}
- * in the Furblorb jar file to determine which classes to register.
- * This avoids the need to perform expensive annotation scanning at runtime.
+ * {@code RegisterSerializable} does not register these itself -- instead, an annotation processor generates the code that
+ * registers every annotated class with {@link FurballSerializables} at compile time.
+ * This avoids the need to perform expensive annotation scanning (or any reflection at all) at runtime.
  * </p>
  * @author SyntacticKitsune
  */
@@ -0,0 +1,56 @@
+package net.syntactickitsune.furblorb.finmer.io;
+
+import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
+
+/**
+ * <p>
+ * A {@link FurballCodec} that steps over strings and {@code byte} arrays instead of decoding them:
+ * strings are read as short placeholders and {@code byte} arrays as empty arrays, but the codec still advances past their encoded bytes.
+ * Each placeholder is distinct, so that constructors which reject duplicate keys (such as {@code PropertyContainer}'s) still accept the data.
+ * </p>
+ * <p>
+ * Since Furball data is not length-prefixed, the only way to find where an object ends is to walk its structure.
+ * Running a serializable's ordinary {@code Decoder} constructor against this codec does exactly that,
+ * while skipping the parts that make up most of the cost of decoding (UTF-8 decoding and copying {@code byte}s).
+ * The resulting object is meaningless and should be discarded.
+ * </p>
+ * @author SyntacticKitsune
+ * @see FurballSerializables#skip(FurballCodec)
+ */
+final class SkippingFurballCodec extends FurballCodec {
+
+	private static final byte[] EMPTY = {};
+
+	private int strings;
+
+	SkippingFurballCodec(BinaryCodec codec) {
+		super(codec);
+	}
+
+	@Override
+	public boolean validate() {
+		return false;
+	}
+
+	@Override
+	public String readString() {
+		skipBytes(read7BitInt());
+		return placeholder();
+	}
+
+	@Override
+	public String readFixedLengthString(int length) {
+		skipBytes(length);
+		return placeholder();
+	}
+
+	private String placeholder() {
+		return Integer.toString(strings++);
+	}
+
+	@Override
+	public byte[] readBytes(int len) {
+		skipBytes(len);
+		return EMPTY;
+	}
+}
\ No newline at end of file
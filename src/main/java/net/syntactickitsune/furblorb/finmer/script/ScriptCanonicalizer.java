@@ -0,0 +1,214 @@
+package net.syntactickitsune.furblorb.finmer.script;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.FurballMetadata;
+import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
+import net.syntactickitsune.furblorb.finmer.asset.ItemAsset;
+import net.syntactickitsune.furblorb.finmer.asset.SceneAsset;
+import net.syntactickitsune.furblorb.finmer.asset.ScriptAsset;
+import net.syntactickitsune.furblorb.finmer.asset.scene.SceneNode;
+import net.syntactickitsune.furblorb.finmer.io.FurballCodec;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables;
+import net.syntactickitsune.furblorb.finmer.script.visual.ScriptNode;
+import net.syntactickitsune.furblorb.finmer.script.visual.expression.ExpressionNode;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.block.CombatBeginStatement;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.block.ForLoopStatement;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.block.IfStatement;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.block.LoopStatement;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.expression.simple.SimpleExpression;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.statement.simple.SimpleStatement;
+import net.syntactickitsune.furblorb.io.StringTable;
+import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
+import net.syntactickitsune.furblorb.io.codec.CodecMode;
+
+/**
+ * <p>
+ * A {@code ScriptCanonicalizer} shares the parts of scripts that modules repeat many times over (the same checks, comments, and snippets),
+ * so that each distinct one is only kept once.
+ * </p>
+ * <p>
+ * Only parts whose state cannot change are shared, so that modifying a script never affects any other:
+ * </p>
+ * <ul>
+ * <li>{@linkplain SimpleStatement Simple statements} and {@linkplain SimpleExpression simple expressions}, which have no state at all,
+ * are replaced with a single instance per type.</li>
+ * <li>Every other node remains its own instance, but the strings it holds (variable names, comments, snippets, and so on) are shared.
+ * Assigning one of its fields only replaces that node's reference, leaving every other node that shared the old value untouched;
+ * in effect, shared values are copied on write.</li>
+ * </ul>
+ * <p>
+ * Visual scripts are rebuilt in the process, so the canonicalized script is an equal copy of the original rather than the original itself.
+ * </p>
+ * <p>
+ * A {@code ScriptCanonicalizer} keeps the values it has shared, so a single one may be used for several furballs in order to share
+ * values between them too. {@code ScriptCanonicalizer} is not thread-safe.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ */
+public final class ScriptCanonicalizer {
+
+	private static final int STRING_TABLE_CAPACITY = 1 << 16;
+
+	private final Map<Class<?>, SimpleStatement> statements = new HashMap<>();
+	private final Map<Class<?>, SimpleExpression> expressions = new HashMap<>();
+
+	// Strings cache their own hashes, so looking a value up never has to walk a subtree.
+	private StringTable strings = newStringTable();
+
+	/**
+	 * Constructs a new, empty {@code ScriptCanonicalizer}.
+	 */
+	public ScriptCanonicalizer() {}
+
+	/**
+	 * Canonicalizes the scripts of every asset in the specified furball.
+	 * Assets that have not been decoded yet (see {@link net.syntactickitsune.furblorb.finmer.io.FurballReader#setLazy(boolean) lazy decoding}) are decoded.
+	 * @param furball The furball.
+	 * @throws NullPointerException If {@code furball} is {@code null}.
+	 */
+	public void canonicalize(Furball furball) {
+		for (FurballAsset asset : Objects.requireNonNull(furball, "furball").assets)
+			canonicalize(asset);
+	}
+
+	/**
+	 * Canonicalizes the scripts of the specified asset.
+	 * @param asset The asset.
+	 * @throws NullPointerException If {@code asset} is {@code null}.
+	 */
+	public void canonicalize(FurballAsset asset) {
+		Objects.requireNonNull(asset, "asset");
+
+		if (asset instanceof SceneAsset scene) {
+			scene.head = canonicalize(scene.head);
+			scene.onEnter = canonicalize(scene.onEnter);
+			scene.onLeave = canonicalize(scene.onLeave);
+			if (scene.root != null)
+				canonicalize(scene.root);
+		} else if (asset instanceof ScriptAsset script)
+			script.contents = canonicalize(script.contents);
+		else if (asset instanceof ItemAsset item && item.useScript != null)
+			canonicalize(item.useScript);
+	}
+
+	/**
+	 * Canonicalizes the scripts of the specified scene node and all of its children.
+	 * @param node The scene node.
+	 * @throws NullPointerException If {@code node} is {@code null}.
+	 */
+	public void canonicalize(SceneNode node) {
+		node.onTrigger = canonicalize(node.onTrigger);
+		node.displayTest = canonicalize(node.displayTest);
+
+		for (SceneNode child : node.children)
+			canonicalize(child);
+	}
+
+	/**
+	 * Canonicalizes the specified script.
+	 * @param <T> The type of script.
+	 * @param script The script.
+	 * @return The canonicalized script: {@code script} itself for inline and external scripts, or an equal copy of it for visual scripts.
+	 */
+	@Nullable
+	public <T extends Script> T canonicalize(@Nullable T script) {
+		if (script instanceof InlineScript inline) {
+			inline.contents = share(inline.contents);
+			return script;
+		}
+
+		if (script instanceof ExternalScript external) {
+			external.name = share(external.name);
+			external.contents = share(external.contents);
+			return script;
+		}
+
+		if (script == null) return null;
+
+		// The nodes of visual scripts are rebuilt by decoding them again with the string table,
+		// rather than each of the many node types needing to be walked field by field.
+		final T ret = rebuild(script);
+		if (ret instanceof VisualConditionScript vcs && vcs.expression != null)
+			shareConditions(vcs.expression.conditions);
+		else if (ret instanceof VisualActionScript vas)
+			shareNodes(vas.nodes);
+
+		return ret;
+	}
+
+	/**
+	 * Forgets every value shared so far.
+	 * Values that have already been shared remain shared.
+	 */
+	public void clear() {
+		statements.clear();
+		expressions.clear();
+		strings = newStringTable();
+	}
+
+	private <T extends Script> T rebuild(T script) {
+		final BinaryCodec out = new BinaryCodec(CodecMode.WRITE_ONLY);
+		out.setFormatVersion(FurballMetadata.LATEST_VERSION);
+		script.writeWithId(FurballCodec.forWriting(out));
+
+		final BinaryCodec in = new BinaryCodec(out.toByteArray(), CodecMode.READ_ONLY);
+		in.setFormatVersion(FurballMetadata.LATEST_VERSION);
+		in.setStringTable(strings);
+		return FurballSerializables.read(FurballCodec.forReading(in));
+	}
+
+	private void shareNodes(@Nullable List<ScriptNode> nodes) {
+		if (nodes == null) return;
+
+		for (ListIterator<ScriptNode> it = nodes.listIterator(); it.hasNext();) {
+			final ScriptNode node = it.next();
+
+			if (node instanceof SimpleStatement s)
+				it.set(statements.computeIfAbsent(s.getClass(), k -> s));
+			else if (node instanceof SimpleExpression e)
+				it.set(expressions.computeIfAbsent(e.getClass(), k -> e));
+			else if (node instanceof IfStatement s) {
+				if (s.expression != null)
+					shareConditions(s.expression.conditions);
+				shareNodes(s.body);
+				shareNodes(s.elseBody);
+			} else if (node instanceof LoopStatement s)
+				shareNodes(s.body);
+			else if (node instanceof ForLoopStatement s)
+				shareNodes(s.body);
+			else if (node instanceof CombatBeginStatement s) {
+				shareNodes(s.onStart);
+				shareNodes(s.onRoundStart);
+				shareNodes(s.onRoundEnd);
+				shareNodes(s.onPlayerKilled);
+				shareNodes(s.onCreatureKilled);
+				shareNodes(s.onCreatureVored);
+				shareNodes(s.onCreatureReleased);
+			}
+		}
+	}
+
+	private void shareConditions(List<ExpressionNode> conditions) {
+		for (ListIterator<ExpressionNode> it = conditions.listIterator(); it.hasNext();)
+			if (it.next() instanceof SimpleExpression e)
+				it.set(expressions.computeIfAbsent(e.getClass(), k -> e));
+	}
+
+	@Nullable
+	private String share(@Nullable String value) {
+		return value != null ? strings.intern(value) : null;
+	}
+
+	private static StringTable newStringTable() {
+		return new StringTable(STRING_TABLE_CAPACITY, Integer.MAX_VALUE);
+	}
+}
\ No newline at end of file
@@ -21,19 +21,21 @@ public final class VisualActionScript extends Script { // Microsoft two seconds
 	/**
 	 * The list of statements to execute.
 	 */
-	public final List<ScriptNode> nodes = new ArrayList<>();
+	public final List<ScriptNode> nodes;
 
 	/**
 	 * Constructs a new empty {@code VisualActionScript}.
 	 */
-	public VisualActionScript() {}
+	public VisualActionScript() {
+		nodes = new ArrayList<>();
+	}
 
 	/**
 	 * Decodes a {@code VisualActionScript} from the specified {@code Decoder}.
 	 * @param in The {@code Decoder}.
 	 */
 	public VisualActionScript(Decoder in) {
-		nodes.addAll(FurballUtil.readObjectList21(in, "Nodes", FurballSerializables::read));
+		nodes = FurballUtil.ownList(FurballUtil.readObjectList21(in, "Nodes", FurballSerializables::read));
 	}
 
 	@Override
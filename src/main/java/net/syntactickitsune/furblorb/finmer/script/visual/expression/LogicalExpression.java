@@ -22,7 +22,7 @@ public final class LogicalExpression implements IFurballSerializable {
 	/**
 	 * The conditions being tested.
 	 */
-	public final List<ExpressionNode> conditions = new ArrayList<>();
+	public final List<ExpressionNode> conditions;
 
 	/**
 	 * The mode: either "and" or "or".
@@ -37,7 +37,9 @@ public final class LogicalExpression implements IFurballSerializable {
 	/**
 	 * Constructs a new {@code LogicalExpression} with default values.
 	 */
-	public LogicalExpression() {}
+	public LogicalExpression() {
+		conditions = new ArrayList<>();
+	}
 
 	/**
 	 * Decodes a {@code LogicalExpression} from the specified {@code Decoder}.
@@ -48,7 +50,7 @@ public final class LogicalExpression implements IFurballSerializable {
 		mode = in.readEnum("Mode", Mode.class);
 		target = in.readBoolean("Operand");
 
-		conditions.addAll(FurballUtil.readObjectList21(in, "Tests", FurballSerializables::read));
+		conditions = FurballUtil.ownList(FurballUtil.readObjectList21(in, "Tests", FurballSerializables::read));
 	}
 
 	@Override
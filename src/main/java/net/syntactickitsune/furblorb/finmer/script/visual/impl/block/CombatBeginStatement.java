@@ -7,6 +7,7 @@ import java.util.UUID;
 
 import org.jetbrains.annotations.Nullable;
 
+import net.syntactickitsune.furblorb.finmer.FurballUtil;
 import net.syntactickitsune.furblorb.finmer.ISerializableVisitor;
 import net.syntactickitsune.furblorb.finmer.RequiresFormatVersion;
 import net.syntactickitsune.furblorb.finmer.io.RegisterSerializable;
@@ -29,7 +30,7 @@ public final class CombatBeginStatement extends StatementBlockNode {
 	/**
 	 * The NPC participants to include in the combat.
 	 */
-	public final List<Participant> participants = new ArrayList<>();
+	public final List<Participant> participants;
 
 	/**
 	 * A series of statements to run when the combat begins.
@@ -82,7 +83,9 @@ public final class CombatBeginStatement extends StatementBlockNode {
 	/**
 	 * Constructs a new {@code CombatBeginStatement} with default values.
 	 */
-	public CombatBeginStatement() {}
+	public CombatBeginStatement() {
+		participants = new ArrayList<>();
+	}
 
 	/**
 	 * Decodes a {@code CombatBeginStatement} from the specified {@code Decoder}.
@@ -93,7 +96,7 @@ public final class CombatBeginStatement extends StatementBlockNode {
 		includePlayer = in.readBoolean("IncludePlayer");
 		in.readBoolean("IncludeAllies");
 
-		participants.addAll(in.readObjectList("Participants", dec -> new Participant(dec.readString("Variable"), dec.readUUID("Creature"), dec.readBoolean("IsAlly"))));
+		participants = FurballUtil.ownList(in.readObjectList("Participants", dec -> new Participant(dec.readString("Variable"), dec.readUUID("Creature"), dec.readBoolean("IsAlly"))));
 
 		onStart = readOptional("CallbackCombatStart", in);
 		if (in.formatVersion() >= 20)
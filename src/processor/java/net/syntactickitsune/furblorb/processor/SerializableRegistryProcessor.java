@@ -0,0 +1,178 @@
+package net.syntactickitsune.furblorb.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * <p>
+ * An annotation processor that generates Furblorb's serializable registry at compile time.
+ * </p>
+ * <p>
+ * For every class annotated with {@code RegisterSerializable}, the generated {@code GeneratedSerializables} class
+ * contains a registration call and a {@code new Foo(in)} branch in its constructor switch.
+ * {@code FurballSerializables} invokes it from its static initializer, so no classpath scanning,
+ * annotation lookups or reflective constructor lookups are needed at runtime.
+ * </p>
+ * @author SyntacticKitsune
+ * @since 2.0.0
+ */
+@SupportedAnnotationTypes(SerializableRegistryProcessor.ANNOTATION)
+public final class SerializableRegistryProcessor extends AbstractProcessor {
+
+	static final String PACKAGE = "net.syntactickitsune.furblorb.finmer.io";
+	static final String ANNOTATION = PACKAGE + ".RegisterSerializable";
+	static final String GENERATED_CLASS = "GeneratedSerializables";
+	static final String DECODER = "net.syntactickitsune.furblorb.io.Decoder";
+
+	private boolean generated;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (generated || annotations.isEmpty()) return false;
+
+		// Sorted by binary name, so the output is stable regardless of the order javac hands us the classes in.
+		final Map<String, Entry> entries = new TreeMap<>();
+		final List<Element> originating = new ArrayList<>();
+
+		for (TypeElement annotation : annotations)
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				final Entry entry = entry(type);
+				if (entry == null) continue;
+
+				entries.put(processingEnv.getElementUtils().getBinaryName(type).toString(), entry);
+				originating.add(type);
+			}
+
+		generated = true;
+		try {
+			write(entries.values(), originating.toArray(Element[]::new));
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + PACKAGE + "." + GENERATED_CLASS + ": " + e);
+		}
+
+		return true;
+	}
+
+	private Entry entry(TypeElement type) {
+		if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			error(type, "@RegisterSerializable may only be applied to concrete classes");
+			return null;
+		}
+
+		if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+			error(type, "@RegisterSerializable may not be applied to inner classes");
+			return null;
+		}
+
+		final boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+				.anyMatch(ctor -> ctor.getModifiers().contains(Modifier.PUBLIC)
+						&& ctor.getParameters().size() == 1
+						&& ctor.getParameters().get(0).asType().toString().equals(DECODER));
+		if (!hasConstructor) {
+			error(type, "Registered serializables must have a public constructor taking a " + DECODER);
+			return null;
+		}
+
+		for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+			if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION)) continue;
+
+			String value = null;
+			int since = 0;
+			int until = 0;
+
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet())
+				switch (e.getKey().getSimpleName().toString()) {
+					case "value" -> value = (String) e.getValue().getValue();
+					case "since" -> since = (Integer) e.getValue().getValue();
+					case "until" -> until = (Integer) e.getValue().getValue();
+				}
+
+			return new Entry(type.getQualifiedName().toString(), value, since, until);
+		}
+
+		throw new AssertionError("unreachable");
+	}
+
+	private void write(Iterable<Entry> entries, Element[] originating) throws IOException {
+		final JavaFileObject file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + GENERATED_CLASS, originating);
+
+		try (PrintWriter out = new PrintWriter(file.openWriter())) {
+			out.println("package " + PACKAGE + ";");
+			out.println();
+			out.println("import javax.annotation.processing.Generated;");
+			out.println();
+			out.println("import net.syntactickitsune.furblorb.io.Decoder;");
+			out.println();
+			out.println("/**");
+			out.println(" * Registers every {@link RegisterSerializable} class with {@link FurballSerializables}.");
+			out.println(" * This class is generated at compile time; do not edit it.");
+			out.println(" */");
+			out.println("@Generated(\"" + SerializableRegistryProcessor.class.getName() + "\")");
+			out.println("final class " + GENERATED_CLASS + " implements FurballSerializables.Constructor<IFurballSerializable> {");
+			out.println();
+			out.println("\tprivate final int index;");
+			out.println();
+			out.println("\tprivate " + GENERATED_CLASS + "(int index) {");
+			out.println("\t\tthis.index = index;");
+			out.println("\t}");
+			out.println();
+			out.println("\tstatic void registerAll() {");
+
+			int index = 0;
+			for (Entry entry : entries)
+				out.println("\t\tregister(" + index++ + ", \"" + entry.value.replace("\\", "\\\\").replace("\"", "\\\"") + "\", " + entry.className + ".class, " + entry.since + ", " + entry.until + ");");
+
+			out.println("\t}");
+			out.println();
+			out.println("\t@SuppressWarnings(\"unchecked\")");
+			out.println("\tprivate static <T extends IFurballSerializable> void register(int index, String name, Class<T> clazz, int since, int until) {");
+			out.println("\t\tFurballSerializables.register(name, clazz, (FurballSerializables.Constructor<T>) new " + GENERATED_CLASS + "(index), since, until);");
+			out.println("\t}");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic IFurballSerializable _new(Decoder in) {");
+			out.println("\t\treturn switch (index) {");
+
+			index = 0;
+			for (Entry entry : entries)
+				out.println("\t\t\tcase " + index++ + " -> new " + entry.className + "(in);");
+
+			out.println("\t\t\tdefault -> throw new AssertionError(index);");
+			out.println("\t\t};");
+			out.println("\t}");
+			out.println("}");
+		}
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	private static record Entry(String className, String value, int since, int until) {}
+}
\ No newline at end of file
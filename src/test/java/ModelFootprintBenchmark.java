@@ -0,0 +1,80 @@
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.syntactickitsune.furblorb.finmer.Furball;
+import net.syntactickitsune.furblorb.finmer.io.FurballReader;
+import net.syntactickitsune.furblorb.finmer.script.ScriptCanonicalizer;
+
+/**
+ * Measures how much heap a decoded Core furball retains.
+ * Each measurement keeps one batch of copies alive, takes the used heap (after a full GC), keeps a second batch alive and takes it again;
+ * the difference between the two is what the second batch retains, and the median over several samples is reported. Comparing against a baseline taken with nothing retained
+ * turned out to be unreliable, since whatever the previous measurement left reachable shifts the baseline by several megabytes.
+ * Run with a fixed heap size and the serial collector (such as {@code -XX:+UseSerialGC -Xms512m -Xmx512m}) for stable numbers.
+ */
+final class ModelFootprintBenchmark {
+
+	private static final int ROUNDS = 3;
+	private static final int COPIES = 10;
+	private static final int SAMPLES = 5;
+
+	public static void main(String[] args) throws Exception {
+		final byte[] furball;
+		try (InputStream is = ModelFootprintBenchmark.class.getResourceAsStream("/Core.1.0.1.furball")) {
+			furball = is.readAllBytes();
+		}
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			System.out.println("Round " + round + ":");
+			report("read Core.1.0.1.furball", () -> new FurballReader(furball).readFurball());
+			report("read Core.1.0.1.furball (deduplicated)", () -> new FurballReader(furball).setDeduplicateStrings(true).readFurball());
+			report("read Core.1.0.1.furball (canonicalized)", () -> canonicalize(new FurballReader(furball).readFurball(), new ScriptCanonicalizer()));
+
+			final ScriptCanonicalizer shared = new ScriptCanonicalizer();
+			report("read Core.1.0.1.furball (shared canonicalizer)", () -> canonicalize(new FurballReader(furball).readFurball(), shared));
+			System.out.println();
+		}
+	}
+
+	private static void report(String name, Supplier<Furball> reader) throws InterruptedException {
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		final long[] samples = new long[SAMPLES];
+
+		for (int sample = 0; sample < SAMPLES; sample++) {
+			final List<Furball> retained = new ArrayList<>(COPIES * 2);
+
+			for (int i = 0; i < COPIES; i++)
+				retained.add(reader.get());
+			final long before = usedAfterGc(memory);
+
+			for (int i = 0; i < COPIES; i++)
+				retained.add(reader.get());
+			final long after = usedAfterGc(memory);
+
+			samples[sample] = (after - before) / COPIES;
+			retained.clear();
+		}
+
+		Arrays.sort(samples);
+		System.out.printf("  %-45s %8.1f KiB/furball (median of %d)%n", name, samples[SAMPLES / 2] / 1024.0, SAMPLES);
+	}
+
+	private static Furball canonicalize(Furball furball, ScriptCanonicalizer canonicalizer) {
+		canonicalizer.canonicalize(furball);
+		return furball;
+	}
+
+	private static long usedAfterGc(MemoryMXBean memory) throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables.Constructor;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables.Metadata;
+import net.syntactickitsune.furblorb.finmer.io.IFurballSerializable;
+import net.syntactickitsune.furblorb.finmer.io.RegisterSerializable;
+import net.syntactickitsune.furblorb.io.Decoder;
+
+/**
+ * Measures how long it takes to set up the serializable registry in a fresh JVM, comparing the generated registry
+ * against the old reflective one (which read a list of class names and then looked up each class' annotation and constructor).
+ * Each measurement runs in its own JVM, since class initialization only happens once per JVM.
+ */
+final class RegistryStartupBenchmark {
+
+	private static final int RUNS = 15;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0) {
+			final long start = System.nanoTime();
+			final int count = args[0].equals("generated") ? FurballSerializables.lookupAll().size() : registerReflectively(Path.of(args[1]));
+			final long elapsed = System.nanoTime() - start;
+
+			System.out.println(elapsed + " " + count);
+			return;
+		}
+
+		final Path classList = Files.createTempFile("serializables", ".txt");
+		try {
+			final List<String> names = new ArrayList<>();
+			for (Metadata<?> meta : FurballSerializables.lookupAll())
+				names.add(meta.owner().getName());
+			Files.write(classList, names);
+
+			final long[] generated = new long[RUNS];
+			final long[] reflective = new long[RUNS];
+			for (int i = 0; i < RUNS; i++) {
+				generated[i] = run("generated");
+				reflective[i] = run("reflective", classList.toString());
+			}
+
+			report("generated registry", generated);
+			report("reflective registry", reflective);
+		} finally {
+			Files.deleteIfExists(classList);
+		}
+	}
+
+	private static long run(String... args) throws Exception {
+		final List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(RegistryStartupBenchmark.class.getName());
+		command.addAll(Arrays.asList(args));
+
+		final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		final String output = new String(process.getInputStream().readAllBytes()).trim();
+		if (process.waitFor() != 0) throw new IllegalStateException("Child JVM failed:\n" + output);
+
+		return Long.parseLong(output.split(" ")[0]);
+	}
+
+	private static void report(String name, long[] nanos) {
+		final long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-20s median %6.2f ms, min %6.2f ms, max %6.2f ms%n", name,
+				sorted[sorted.length / 2] / 1e6, sorted[0] / 1e6, sorted[sorted.length - 1] / 1e6);
+	}
+
+	// A replica of the original FurballSerializables static initializer.
+	private static int registerReflectively(Path classList) throws Exception {
+		final Map<Integer, Object[]> byId = new HashMap<>();
+		final Map<String, Object[]> byType = new HashMap<>();
+		final Map<Class<?>, Object[]> byClass = new IdentityHashMap<>();
+
+		for (String target : Files.readAllLines(classList)) {
+			final Class<?> cls = Class.forName(target);
+			final RegisterSerializable rs = Objects.requireNonNull(cls.getAnnotation(RegisterSerializable.class), () -> target + " is missing a RegisterSerializable annotation!");
+			final int id = FurblorbUtil.hash(rs.value());
+
+			final java.lang.reflect.Constructor<?> reflectCtor = cls.getDeclaredConstructor(Decoder.class);
+			final MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(reflectCtor);
+
+			final Constructor<?> ctor = dec -> {
+				try {
+					return (IFurballSerializable) handle.invoke(dec);
+				} catch (Throwable e) {
+					return FurblorbUtil.throwAsUnchecked(e);
+				}
+			};
+
+			final Object[] meta = { id, rs.value(), ctor, cls, rs.since(), rs.until() };
+			byId.put(id, meta);
+			byType.put(rs.value(), meta);
+			byClass.put(cls, meta);
+		}
+
+		return byClass.size();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
+import net.syntactickitsune.furblorb.finmer.io.FurballReader;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables.Constructor;
+import net.syntactickitsune.furblorb.finmer.io.FurballSerializables.Metadata;
+import net.syntactickitsune.furblorb.finmer.io.IFurballSerializable;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.statement.CommentStatement;
+import net.syntactickitsune.furblorb.io.Decoder;
+import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
+import net.syntactickitsune.furblorb.io.codec.CodecMode;
+
+/**
+ * Compares the dispatch overhead of {@link FurballSerializables} against the original registry,
+ * which used boxed {@code HashMap}s and invoked constructors through a {@link MethodHandle} wrapped in a lambda.
+ * The "legacy" registry is rebuilt here exactly as it used to be built.
+ */
+final class SerializableDispatchBenchmark {
+
+	private static final int ROUNDS = 5;
+	private static final int LOOKUPS = 20_000_000;
+	private static final int CONSTRUCTIONS = 5_000_000;
+	private static final int FURBALL_READS = 50;
+
+	public static void main(String[] args) throws Exception {
+		final List<Metadata<?>> all = new ArrayList<>(FurballSerializables.lookupAll());
+
+		final Map<Integer, Metadata<?>> legacyById = new HashMap<>();
+		final Map<Class<?>, Metadata<?>> legacyByClass = new IdentityHashMap<>();
+		for (Metadata<?> meta : all) {
+			legacyById.put(meta.id(), meta);
+			legacyByClass.put(meta.owner(), meta);
+		}
+
+		// Visit the serializables in a shuffled (but reproducible) order, to keep the branch predictor honest.
+		final List<Metadata<?>> order = new ArrayList<>();
+		for (int i = 0; i < 64; i++) order.addAll(all);
+		Collections.shuffle(order, new Random(42));
+
+		final int[] ids = order.stream().mapToInt(Metadata::id).toArray();
+		@SuppressWarnings("unchecked")
+		final Class<? extends IFurballSerializable>[] classes = order.stream().map(Metadata::owner).toArray(Class[]::new);
+
+		final BinaryCodec commentCodec = new BinaryCodec(CodecMode.WRITE_ONLY);
+		final CommentStatement comment = new CommentStatement();
+		comment.comment = "Hello!";
+		comment.write(commentCodec);
+		final byte[] commentBytes = commentCodec.toByteArray();
+
+		final Constructor<?> fast = FurballSerializables.lookupByClass(CommentStatement.class).ctor();
+		final Constructor<?> legacy = legacyConstructor(CommentStatement.class);
+
+		final byte[] furball;
+		try (InputStream is = SerializableDispatchBenchmark.class.getResourceAsStream("/Core.1.0.1.furball")) {
+			furball = is.readAllBytes();
+		}
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			System.out.println("Round " + round + ":");
+
+			report("lookupById (legacy HashMap)", LOOKUPS, () -> {
+				long sum = 0;
+				for (int i = 0; i < LOOKUPS; i++)
+					sum += legacyById.get(ids[i % ids.length]).minFormatVersion();
+				return sum;
+			});
+			report("lookupById (IdTable)", LOOKUPS, () -> {
+				long sum = 0;
+				for (int i = 0; i < LOOKUPS; i++)
+					sum += FurballSerializables.lookupById(ids[i % ids.length]).minFormatVersion();
+				return sum;
+			});
+
+			report("lookupByClass (legacy IdentityHashMap)", LOOKUPS, () -> {
+				long sum = 0;
+				for (int i = 0; i < LOOKUPS; i++)
+					sum += legacyByClass.get(classes[i % classes.length]).minFormatVersion();
+				return sum;
+			});
+			report("lookupByClass (ClassValue)", LOOKUPS, () -> {
+				long sum = 0;
+				for (int i = 0; i < LOOKUPS; i++)
+					sum += FurballSerializables.lookupByClass(classes[i % classes.length]).minFormatVersion();
+				return sum;
+			});
+
+			report("construct (legacy MethodHandle)", CONSTRUCTIONS, () -> construct(legacy, commentBytes));
+			report("construct (registry)", CONSTRUCTIONS, () -> construct(fast, commentBytes));
+
+			report("read Core.1.0.1.furball", FURBALL_READS, () -> {
+				long sum = 0;
+				for (int i = 0; i < FURBALL_READS; i++)
+					sum += new FurballReader(furball).readFurball().assets.size();
+				return sum;
+			});
+
+			System.out.println();
+		}
+	}
+
+	private static long construct(Constructor<?> ctor, byte[] bytes) {
+		final BinaryCodec codec = new BinaryCodec(bytes, CodecMode.READ_ONLY);
+		long sum = 0;
+		for (int i = 0; i < CONSTRUCTIONS; i++) {
+			codec.buffer().rewind();
+			sum += ctor._new(codec).hashCode();
+		}
+		return sum;
+	}
+
+	private static Constructor<?> legacyConstructor(Class<?> cls) throws ReflectiveOperationException {
+		final MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(cls.getDeclaredConstructor(Decoder.class));
+		return dec -> {
+			try {
+				return (IFurballSerializable) handle.invoke(dec);
+			} catch (Throwable e) {
+				return FurblorbUtil.throwAsUnchecked(e);
+			}
+		};
+	}
+
+	private static void report(String name, int operations, Benchmark benchmark) {
+		final long start = System.nanoTime();
+		final long blackhole = benchmark.run();
+		final long elapsed = System.nanoTime() - start;
+
+		System.out.printf("  %-40s %10.2f ns/op  (%d)%n", name, (double) elapsed / operations, blackhole & 0xF);
+	}
+
+	@FunctionalInterface
+	private interface Benchmark {
+		long run();
+	}
+}
\ No newline at end of file
@@ -2,30 +2,51 @@ package test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import net.syntactickitsune.furblorb.finmer.Furball;
 import net.syntactickitsune.furblorb.finmer.FurballMetadata;
+import net.syntactickitsune.furblorb.finmer.FurballUtil;
+import net.syntactickitsune.furblorb.finmer.FurblorbUtil;
 import net.syntactickitsune.furblorb.finmer.asset.FurballAsset;
 import net.syntactickitsune.furblorb.finmer.asset.scene.SceneNode;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectReader;
 import net.syntactickitsune.furblorb.finmer.io.FinmerProjectWriter;
+import net.syntactickitsune.furblorb.finmer.io.FinmerProjectWriter.WriteOnlyExternalFileHandler;
+import net.syntactickitsune.furblorb.finmer.io.FurballCodec;
 import net.syntactickitsune.furblorb.finmer.io.FurballReader;
 import net.syntactickitsune.furblorb.finmer.io.FurballSerializables;
 import net.syntactickitsune.furblorb.finmer.io.FurballWriter;
+import net.syntactickitsune.furblorb.finmer.io.ProjectBuildCache;
 import net.syntactickitsune.furblorb.finmer.io.UnsupportedFormatVersionException;
+import net.syntactickitsune.furblorb.finmer.script.InlineScript;
+import net.syntactickitsune.furblorb.finmer.script.ScriptCanonicalizer;
+import net.syntactickitsune.furblorb.finmer.script.VisualActionScript;
 import net.syntactickitsune.furblorb.finmer.script.visual.expression.BooleanExpression;
 import net.syntactickitsune.furblorb.finmer.script.visual.expression.ComparisonExpressionNode;
 import net.syntactickitsune.furblorb.finmer.script.visual.expression.FloatExpression;
@@ -33,10 +54,15 @@ import net.syntactickitsune.furblorb.finmer.script.visual.expression.IntExpressi
 import net.syntactickitsune.furblorb.finmer.script.visual.expression.LogicalExpression;
 import net.syntactickitsune.furblorb.finmer.script.visual.expression.StringExpression;
 import net.syntactickitsune.furblorb.finmer.script.visual.impl.expression.simple.SimpleExpression;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.statement.CommentStatement;
+import net.syntactickitsune.furblorb.finmer.script.visual.impl.statement.simple.EndGameStatement;
 import net.syntactickitsune.furblorb.finmer.script.visual.impl.statement.simple.SimpleStatement;
+import net.syntactickitsune.furblorb.io.FurblorbException;
 import net.syntactickitsune.furblorb.io.FurblorbParsingException;
+import net.syntactickitsune.furblorb.io.StringTable;
 import net.syntactickitsune.furblorb.io.codec.BinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.CodecMode;
+import net.syntactickitsune.furblorb.io.codec.FlushingBinaryCodec;
 import net.syntactickitsune.furblorb.io.codec.JsonCodec;
 
 final class FurblorbTest {
@@ -121,6 +147,383 @@ final class FurblorbTest {
 		return doProject2FurballTest("DeepForest.1.0.0.zip", "/DeepForest.1.0.0.furball", "DeepForest");
 	}
 
+	@TestFactory
+	List<DynamicTest> testParallelFurballWriter() {
+		return doWriterVariantTest(furball -> new FurballWriter().setExecutor(ForkJoinPool.commonPool()).write(furball).toByteArray());
+	}
+
+	@TestFactory
+	List<DynamicTest> testParallelFurballReader() {
+		return doReaderVariantTest(in -> new FurballReader(in).setExecutor(ForkJoinPool.commonPool()).readFurball());
+	}
+
+	@TestFactory
+	List<DynamicTest> testMappedFurballReader() {
+		return doReaderVariantTest(in -> assertDoesNotThrow(() -> {
+			// Each read gets its own file, since a mapped file may not be overwritten on some platforms.
+			final Path dir = Files.createDirectories(Path.of("build", "tmp", "Mapped"));
+			final Path file = Files.createTempFile(dir, "Mapped", ".furball");
+			Files.write(file, in);
+
+			final BinaryCodec mapped = BinaryCodec.map(file);
+			assertEquals(ByteOrder.LITTLE_ENDIAN, mapped.buffer().order());
+			assertEquals(new FurballReader(in).readFurball(), new FurballReader(mapped).readFurball());
+
+			return new FurballReader(file).readFurball();
+		}));
+	}
+
+	@Test
+	void testStreamingFormat21Reads() {
+		final Furball furball = assertDoesNotThrow(() -> new FurballReader(TestUtil.readAllBytes("/Core.1.0.1.furball")).readFurball());
+		furball.meta.formatVersion = 21;
+		final byte[] f21 = new FurballWriter().write(furball).toByteArray();
+
+		// Reading just the metadata should stop well before the end of the compressed data:
+		final BinaryCodec codec = new BinaryCodec(f21, CodecMode.READ_ONLY);
+		assertEquals(furball.meta, new FurballReader(codec).readMetadata());
+		assertTrue(codec.position() < f21.length / 2, "read " + codec.position() + " of " + f21.length + " bytes");
+
+		// Streamed reads should match ones that decompress everything up front (which retaining encoded assets requires):
+		final Furball expected = new FurballReader(f21).setRetainEncoded(true).readFurball();
+		assertEquals(expected, new FurballReader(f21).readFurball());
+		assertEquals(expected, new FurballReader(new ByteArrayInputStream(f21)).readFurball());
+	}
+
+	@Test
+	void testCorruptFormat21Furball() {
+		final Furball furball = assertDoesNotThrow(() -> new FurballReader(TestUtil.readAllBytes("/Core.1.0.1.furball")).readFurball());
+		furball.meta.formatVersion = 21;
+		final byte[] f21 = new FurballWriter().write(furball).toByteArray();
+
+		// Streamed reads must still reach the GZIP trailer, whose CRC catches the corruption:
+		final byte[] corrupt = f21.clone();
+		corrupt[corrupt.length / 2] ^= 0x10;
+		assertThrows(FurblorbParsingException.class, () -> new FurballReader(corrupt).readFurball());
+		assertThrows(FurblorbParsingException.class, () -> new FurballReader(new ByteArrayInputStream(corrupt)).readFurball());
+	}
+
+	@Test
+	void testParallelCompression() {
+		final Furball furball = assertDoesNotThrow(() -> new FurballReader(TestUtil.readAllBytes("/Core.1.0.1.furball")).readFurball());
+		furball.meta.formatVersion = 21;
+		final byte[] sequential = new FurballWriter().write(furball).toByteArray();
+
+		// Parallel compression is opt-in, so the default output must not change:
+		assertArrayEquals(sequential, new FurballWriter().setExecutor(ForkJoinPool.commonPool()).write(furball).toByteArray());
+
+		final Furball expected = new FurballReader(sequential).readFurball();
+		for (int level : new int[] { 0, 1, 6, 9 }) {
+			final byte[] parallel = new FurballWriter().setCompressionLevel(level).setParallelCompression(true).write(furball).toByteArray();
+			assertEquals(expected, new FurballReader(parallel).readFurball(), "level " + level);
+			assertEquals(expected, new FurballReader(new ByteArrayInputStream(parallel)).readFurball(), "level " + level + " (streamed)");
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> new FurballWriter().setCompressionLevel(10));
+	}
+
+	@TestFactory
+	List<DynamicTest> testStreamingFurballWriter() {
+		final FlushingBinaryCodec codec = new FlushingBinaryCodec(new ByteArrayOutputStream());
+		assertThrows(UnsupportedOperationException.class, codec::toByteArray);
+
+		// A tiny window forces nearly every value to be flushed (or to bypass the window) on its own:
+		return doWriterVariantTest(furball -> {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			new FurballWriter(new FlushingBinaryCodec(out, 16)).write(furball);
+			return out.toByteArray();
+		});
+	}
+
+	@TestFactory
+	List<DynamicTest> testParallelStreamingFurballWriter() {
+		return doWriterVariantTest(furball -> {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			new FurballWriter(new FlushingBinaryCodec(out)).setExecutor(ForkJoinPool.commonPool()).write(furball);
+			return out.toByteArray();
+		});
+	}
+
+	@Test
+	void testParallelFinmerProjectReader() throws Exception {
+		for (String module : List.of("Core", "DeepForest")) {
+			final String zip = module.equals("Core") ? "Core.1.0.1.zip" : "DeepForest.1.0.0.zip";
+			final MemoryExternalFileHandler in = TestUtil.fromZip(module, TestUtil.extract(zip));
+
+			final Furball sequential = new FinmerProjectReader(in).readFurball();
+			final Furball parallel = new FinmerProjectReader(in).setExecutor(ForkJoinPool.commonPool()).readFurball();
+			assertEquals(sequential, parallel, module);
+			assertArrayEquals(new FurballWriter().write(sequential).toByteArray(), new FurballWriter().write(parallel).toByteArray(), module);
+
+			// Errors still name the asset that caused them:
+			final Map<String, byte[]> files = new LinkedHashMap<>(in.contents());
+			final String broken = files.keySet().stream().filter(name -> name.endsWith(".json")).sorted().skip(3).findFirst().orElseThrow();
+			files.put(broken, "{ \"$type\": 42 }".getBytes(StandardCharsets.UTF_8));
+			final FinmerProjectReader reader = new FinmerProjectReader(new MemoryExternalFileHandler(module, files)).setExecutor(ForkJoinPool.commonPool());
+			assertEquals("Exception reading asset " + broken, assertThrows(FurblorbException.class, reader::readFurball).getMessage(), module);
+		}
+	}
+
+	@TestFactory
+	List<DynamicTest> testParallelFinmerProjectWriter() {
+		return doSampleFurballTest((in, furball) -> {
+			final MemoryExternalFileHandler sequential = new MemoryExternalFileHandler("Test");
+			new FinmerProjectWriter(sequential).writeFurball(furball);
+
+			// Lazily-read assets are decoded by the writing tasks:
+			final MemoryExternalFileHandler parallel = new MemoryExternalFileHandler("Test");
+			new FinmerProjectWriter(parallel).setExecutor(ForkJoinPool.commonPool()).writeFurball(new FurballReader(in).setLazy(true).readFurball());
+
+			assertEquals(sequential.contents().keySet(), parallel.contents().keySet());
+			for (Map.Entry<String, byte[]> e : sequential.contents().entrySet())
+				assertArrayEquals(e.getValue(), parallel.contents().get(e.getKey()), e.getKey());
+		});
+	}
+
+	@Test
+	void testProjectBuildCache() throws Exception {
+		final Path project = TestUtil.extract("Core.1.0.1.zip");
+		final MemoryExternalFileHandler in = TestUtil.fromZip("Core", project);
+		final byte[] expected = new FurballWriter().write(new FinmerProjectReader(in).readFurball()).toByteArray();
+
+		final Path cacheFile = Path.of("build", "tmp", "Core.buildcache");
+		Files.deleteIfExists(cacheFile);
+
+		// The first read parses everything:
+		ProjectBuildCache cache = ProjectBuildCache.open(cacheFile);
+		Furball furball = new FinmerProjectReader(in).setBuildCache(cache).readFurball();
+		assertEquals(0, cache.hits());
+		assertArrayEquals(expected, new FurballWriter().write(furball).toByteArray());
+		cache.save();
+
+		// The second doesn't parse anything:
+		cache = ProjectBuildCache.open(cacheFile);
+		furball = new FinmerProjectReader(in).setBuildCache(cache).readFurball();
+		assertEquals(0, cache.misses());
+		for (int i = 0; i < furball.assets.size(); i++)
+			assertFalse(furball.assets.isMaterialized(i));
+		assertArrayEquals(expected, new FurballWriter().write(furball).toByteArray());
+		cache.save();
+
+		// Changing an external file invalidates just the asset that reads it:
+		final Map<String, byte[]> files = new LinkedHashMap<>(in.contents());
+		final String script = files.keySet().stream().filter(name -> name.endsWith(".lua")).findFirst().orElseThrow();
+		files.put(script, (new String(files.get(script), StandardCharsets.UTF_8) + "\r\n-- Modified").getBytes(StandardCharsets.UTF_8));
+		final MemoryExternalFileHandler modified = new MemoryExternalFileHandler("Core", files);
+
+		cache = ProjectBuildCache.open(cacheFile);
+		furball = new FinmerProjectReader(modified).setBuildCache(cache).readFurball();
+		assertEquals(1, cache.misses());
+		assertArrayEquals(new FurballWriter().write(new FinmerProjectReader(modified).readFurball()).toByteArray(), new FurballWriter().write(furball).toByteArray());
+
+		// A corrupt cache is simply ignored:
+		Files.write(cacheFile, new byte[] { 1, 2, 3 });
+		cache = ProjectBuildCache.open(cacheFile);
+		new FinmerProjectReader(in).setBuildCache(cache).readFurball();
+		assertEquals(0, cache.hits());
+	}
+
+	@Test
+	void testStreamingJsonDecoder() throws Exception {
+		final MemoryExternalFileHandler in = TestUtil.fromZip("Core", TestUtil.extract("Core.1.0.1.zip"));
+		final byte[] expected = new FurballWriter().write(new FinmerProjectReader(in).readFurball()).toByteArray();
+
+		// Reversing the keys of every object means values have to be buffered (and absent keys can no longer be assumed absent):
+		final Map<String, byte[]> files = new LinkedHashMap<>(in.contents());
+		files.replaceAll((name, contents) -> name.endsWith(".json") ? reverseKeys(FurblorbUtil.readJson(contents)).toString().getBytes(StandardCharsets.UTF_8) : contents);
+		final MemoryExternalFileHandler reversed = new MemoryExternalFileHandler("Core", files);
+
+		assertArrayEquals(expected, new FurballWriter().write(new FinmerProjectReader(reversed).readFurball()).toByteArray());
+	}
+
+	private static JsonElement reverseKeys(JsonElement elem) {
+		if (elem instanceof JsonObject obj) {
+			final List<String> keys = new ArrayList<>(obj.keySet());
+			Collections.reverse(keys);
+
+			final JsonObject ret = new JsonObject();
+			for (String key : keys)
+				ret.add(key, reverseKeys(obj.get(key)));
+
+			return ret;
+		}
+
+		if (elem instanceof JsonArray arr) {
+			final JsonArray ret = new JsonArray(arr.size());
+			arr.forEach(e -> ret.add(reverseKeys(e)));
+			return ret;
+		}
+
+		return elem;
+	}
+
+	@TestFactory
+	List<DynamicTest> testStreamingJsonEncoder() {
+		return doSampleFurballTest((in, furball) -> {
+			for (byte formatVersion : new byte[] { 20, 21 }) {
+				furball.meta.formatVersion = formatVersion;
+
+				final MemoryExternalFileHandler out = new MemoryExternalFileHandler("Test");
+				new FinmerProjectWriter(out).writeFurball(furball);
+
+				// The output must be the same as building a tree with JsonCodec and then pretty-printing it:
+				final MemoryExternalFileHandler externals = new MemoryExternalFileHandler("Test");
+				final Map<String, byte[]> expected = new LinkedHashMap<>();
+				for (FurballAsset asset : furball.assets) {
+					final JsonCodec codec = new JsonCodec(externals, formatVersion);
+					FurballUtil.initializeJsonCodec(codec);
+					asset.writeWithId(codec);
+					expected.put(asset.filename + ".json", ("\uFEFF" + FinmerProjectWriter.toJson(codec.unwrap())).getBytes(StandardCharsets.UTF_8));
+				}
+
+				for (Map.Entry<String, byte[]> e : expected.entrySet())
+					assertArrayEquals(e.getValue(), out.contents().get(e.getKey()), "format " + formatVersion + ": " + e.getKey());
+			}
+		});
+	}
+
+	@Test
+	void testSpecializedFurballCodecs() {
+		final Furball furball = assertDoesNotThrow(() -> new FurballReader(TestUtil.readAllBytes("/Core.1.0.1.furball")).readFurball());
+		for (byte formatVersion : new byte[] { 20, 21 })
+			for (FurballAsset asset : furball.assets) {
+				// The specialized codecs must produce and accept exactly what the general one does:
+				final BinaryCodec general = new BinaryCodec(CodecMode.WRITE_ONLY);
+				general.setFormatVersion(formatVersion);
+				new FurballCodec(general).writeObject(asset, FurballAsset::writeWithId);
+
+				final BinaryCodec specialized = new BinaryCodec(CodecMode.WRITE_ONLY);
+				specialized.setFormatVersion(formatVersion);
+				FurballCodec.forWriting(specialized).writeObject(asset, FurballAsset::writeWithId);
+
+				final byte[] bytes = general.toByteArray();
+				assertArrayEquals(bytes, specialized.toByteArray(), asset.filename + " (" + formatVersion + ")");
+
+				final BinaryCodec in = new BinaryCodec(bytes, CodecMode.READ_ONLY);
+				in.setFormatVersion(formatVersion);
+				final FurballCodec reader = FurballCodec.forReading(in);
+				final FurballAsset read = FurballSerializables.read(reader);
+				assertFalse(reader.hasRemaining());
+
+				final BinaryCodec out = new BinaryCodec(CodecMode.WRITE_ONLY);
+				out.setFormatVersion(formatVersion);
+				FurballCodec.forWriting(out).writeObject(read, FurballAsset::writeWithId);
+				assertArrayEquals(bytes, out.toByteArray(), asset.filename + " (" + formatVersion + ")");
+			}
+
+		final BinaryCodec codec = new BinaryCodec(new byte[4], CodecMode.READ_ONLY);
+		codec.setFormatVersion((byte) 21);
+		final FurballCodec reader = FurballCodec.forReading(codec);
+		assertThrows(UnsupportedOperationException.class, () -> reader.writeBoolean(false));
+		assertThrows(UnsupportedOperationException.class, () -> reader.setFormatVersion((byte) 20));
+
+		final BinaryCodec writeOnly = new BinaryCodec(CodecMode.WRITE_ONLY);
+		writeOnly.setFormatVersion((byte) 21);
+		assertThrows(UnsupportedOperationException.class, () -> FurballCodec.forWriting(writeOnly).readBoolean());
+		assertThrows(UnsupportedOperationException.class, () -> FurballCodec.forReading(writeOnly));
+	}
+
+	@Test
+	void testSkipUnchangedWrites() throws Exception {
+		final Furball furball = assertDoesNotThrow(() -> new FurballReader(TestUtil.readAllBytes("/Core.1.0.1.furball")).readFurball());
+		final Path dir = Path.of("build", "tmp", "SkipUnchanged", "Core");
+		final WriteOnlyExternalFileHandler handler = WriteOnlyExternalFileHandler.forProjectDirectory(dir).skippingUnchanged();
+		new FinmerProjectWriter(handler).writeFurball(furball);
+
+		final Map<Path, FileTime> times = new LinkedHashMap<>();
+		final FileTime past = FileTime.fromMillis(0);
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				Files.setLastModifiedTime(file, past);
+				times.put(file, past);
+			}
+		}
+
+		// Changing one file means only it is rewritten:
+		final Path changed = times.keySet().stream().filter(file -> file.toString().endsWith(".lua")).findFirst().orElseThrow();
+		Files.write(changed, new byte[] { 1, 2, 3 });
+		Files.setLastModifiedTime(changed, past);
+
+		new FinmerProjectWriter(handler).writeFurball(furball);
+		for (Map.Entry<Path, FileTime> e : times.entrySet())
+			if (e.getKey().equals(changed))
+				assertNotEquals(past, Files.getLastModifiedTime(e.getKey()), e.getKey().toString());
+			else
+				assertEquals(past, Files.getLastModifiedTime(e.getKey()), e.getKey().toString());
+
+		final MemoryExternalFileHandler expected = new MemoryExternalFileHandler("Core");
+		new FinmerProjectWriter(expected).writeFurball(furball);
+		assertArrayEquals(expected.contents().get(dir.relativize(changed).toString().replace('\\', '/')), Files.readAllBytes(changed));
+	}
+
+	@TestFactory
+	List<DynamicTest> testLazyFurballReader() {
+		return doSampleFurballTest((in, eager) -> {
+			final Furball lazy = assertDoesNotThrow(() -> new FurballReader(in).setLazy(true).readFurball());
+
+			assertEquals(eager.assets.size(), lazy.assets.size());
+			for (int i = 0; i < lazy.assets.size(); i++) {
+				assertFalse(lazy.assets.isMaterialized(i));
+				assertEquals(eager.assets.get(i).id, lazy.assets.id(i));
+				assertEquals(eager.assets.get(i).filename, lazy.assets.filename(i));
+				assertEquals(eager.assets.get(i).getClass(), lazy.assets.type(i));
+			}
+
+			// Untouched assets are written back verbatim, even after sorting:
+			assertArrayEquals(in, new FurballWriter().write(lazy).toByteArray());
+			Collections.sort(lazy.assets);
+			Collections.sort(eager.assets);
+			assertFalse(lazy.assets.isMaterialized(0));
+			assertArrayEquals(new FurballWriter().write(eager).toByteArray(), new FurballWriter().write(lazy).toByteArray(), "sorted");
+
+			// Decoding on access:
+			assertEquals(eager.assets.get(0), lazy.assets.get(0));
+			assertTrue(lazy.assets.isMaterialized(0));
+			assertEquals(eager, lazy);
+
+			// Changing the format version re-encodes everything:
+			final Furball lazy21 = assertDoesNotThrow(() -> new FurballReader(in).setLazy(true).readFurball());
+			eager.meta.formatVersion = lazy21.meta.formatVersion = 21;
+			Collections.sort(lazy21.assets);
+			assertArrayEquals(new FurballWriter().write(eager).toByteArray(),
+					new FurballWriter().setExecutor(ForkJoinPool.commonPool()).write(lazy21).toByteArray(), "format 21");
+		});
+	}
+
+	@TestFactory
+	List<DynamicTest> testRetainedEncodedAssets() {
+		return doSampleFurballTest((in, eager) -> {
+			final Furball retained = assertDoesNotThrow(() -> new FurballReader(in).setRetainEncoded(true).readFurball());
+
+			assertEquals(eager, retained);
+			for (FurballAsset asset : retained.assets)
+				assertNotNull(asset.encoded());
+
+			assertArrayEquals(in, new FurballWriter().write(retained).toByteArray());
+			assertArrayEquals(in, new FurballWriter().setExecutor(ForkJoinPool.commonPool()).write(retained).toByteArray());
+
+			// Modified assets are re-encoded once marked dirty:
+			eager.assets.get(0).filename += "_Modified";
+			retained.assets.get(0).filename += "_Modified";
+			retained.assets.get(0).markDirty();
+			assertNull(retained.assets.get(0).encoded());
+			assertArrayEquals(new FurballWriter().write(eager).toByteArray(), new FurballWriter().write(retained).toByteArray(), "modified");
+
+			// ... and even if they aren't:
+			eager.assets.get(1).filename += "_Modified";
+			retained.assets.get(1).filename += "_Modified";
+			assertNull(retained.assets.get(1).encoded());
+			assertArrayEquals(new FurballWriter().write(eager).toByteArray(), new FurballWriter().write(retained).toByteArray(), "modified, not dirty");
+			assertArrayEquals(new FurballWriter().write(eager).toByteArray(),
+					new FurballWriter().setExecutor(ForkJoinPool.commonPool()).write(retained).toByteArray(), "modified, not dirty, parallel");
+
+			// Lazily-read assets retain their encoded form once decoded too:
+			final Furball lazy = assertDoesNotThrow(() -> new FurballReader(in).setLazy(true).setRetainEncoded(true).readFurball());
+			assertNotNull(lazy.assets.get(0).encoded());
+			assertArrayEquals(in, new FurballWriter().write(lazy).toByteArray(), "lazy");
+		});
+	}
+
 	@Test
 	void testConstructEveryAsset() { // This isn't coverage hacking, probably.
 		for (FurballSerializables.Metadata<?> meta : FurballSerializables.lookupAll())
@@ -197,6 +600,111 @@ final class FurblorbTest {
 		assertThrows(UnsupportedOperationException.class, () -> new JsonCodec(new JsonObject(), null, CodecMode.READ_ONLY).writeBoolean("e", false));
 	}
 
+	@Test
+	void testBinaryCodecStrings() {
+		final List<String> strings = List.of("", "Hello, world!", "caf\u00E9", "\u00A7\u07FF\u0800\uFFFF", "\uD83E\uDD8A fox",
+				"lone \uD800 high", "lone \uDC00 low", "swapped \uDC00\uD800", "trailing \uD83E", "x".repeat(100_000) + "\u00E9");
+
+		for (String value : strings) {
+			final byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+
+			final BinaryCodec out = new BinaryCodec(CodecMode.WRITE_ONLY);
+			out.writeString(value);
+			out.writeFixedLengthString(value);
+
+			final BinaryCodec reference = new BinaryCodec(CodecMode.WRITE_ONLY);
+			reference.write7BitInt(expected.length);
+			reference.writeBytes(expected);
+			reference.writeBytes(expected);
+
+			final byte[] bytes = out.toByteArray();
+			assertArrayEquals(reference.toByteArray(), bytes);
+
+			// Heap buffers are decoded in place, direct ones are not:
+			final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+			for (BinaryCodec in : List.of(new BinaryCodec(bytes, CodecMode.READ_ONLY), new BinaryCodec(direct, CodecMode.READ_ONLY))) {
+				final String decoded = new String(expected, StandardCharsets.UTF_8);
+				assertEquals(decoded, in.readString());
+				assertEquals(decoded, in.readFixedLengthString(expected.length));
+				assertFalse(in.hasRemaining());
+			}
+		}
+
+		final BinaryCodec truncated = new BinaryCodec(new byte[] { 5, 'a' }, CodecMode.READ_ONLY);
+		assertThrows(BufferUnderflowException.class, truncated::readString);
+	}
+
+	@Test
+	void testStringDeduplication() {
+		final StringTable table = new StringTable(16, 4);
+		final String a = new String("abc");
+		assertSame(a, table.intern(a));
+		assertSame(a, table.intern(new String("abc")));
+		final String b = new String("abcde");
+		assertSame(b, table.intern(b));
+		assertNotSame(b, table.intern(new String("abcde"))); // Too long to be stored.
+		assertEquals(16, table.capacity());
+		assertEquals(32, new StringTable(17, 0).capacity());
+
+		// Deduplication must not change what is read:
+		final byte[] in = assertDoesNotThrow(() -> TestUtil.readAllBytes("/Core.1.0.1.furball"));
+		final byte[] expected = new FurballWriter().write(new FurballReader(in).readFurball()).toByteArray();
+		assertArrayEquals(expected, new FurballWriter().write(new FurballReader(in).setDeduplicateStrings(true).readFurball()).toByteArray());
+		assertArrayEquals(expected, new FurballWriter().write(new FurballReader(in).setDeduplicateStrings(true).setExecutor(ForkJoinPool.commonPool()).readFurball()).toByteArray());
+		assertArrayEquals(expected, new FurballWriter().write(new FurballReader(in).setDeduplicateStrings(true).setLazy(true).readFurball()).toByteArray());
+
+		final Furball furball = new FurballReader(in).readFurball();
+		final MemoryExternalFileHandler written = new MemoryExternalFileHandler("Test");
+		new FinmerProjectWriter(written).writeFurball(furball);
+		final MemoryExternalFileHandler project = new MemoryExternalFileHandler("Test", written.contents());
+		final Furball deduplicated = new FinmerProjectReader(project).setDeduplicateStrings(true).readFurball();
+		assertArrayEquals(new FurballWriter().write(new FinmerProjectReader(project).readFurball()).toByteArray(), new FurballWriter().write(deduplicated).toByteArray());
+	}
+
+	@Test
+	void testScriptCanonicalization() {
+		final byte[] in = assertDoesNotThrow(() -> TestUtil.readAllBytes("/Core.1.0.1.furball"));
+		final Furball a = new FurballReader(in).readFurball();
+		final Furball b = new FurballReader(in).readFurball();
+
+		final ScriptCanonicalizer canonicalizer = new ScriptCanonicalizer();
+		canonicalizer.canonicalize(a);
+		canonicalizer.canonicalize(b);
+
+		// Canonicalization must not change what is written:
+		assertArrayEquals(in, new FurballWriter().write(a).toByteArray());
+		assertArrayEquals(in, new FurballWriter().write(b).toByteArray());
+
+		final CommentStatement comment = new CommentStatement();
+		comment.comment = new String("Shared");
+		final CommentStatement other = new CommentStatement();
+		other.comment = new String("Shared");
+		final VisualActionScript script = new VisualActionScript();
+		script.nodes.add(comment);
+		script.nodes.add(other);
+		script.nodes.add(new EndGameStatement());
+		script.nodes.add(new EndGameStatement());
+
+		final VisualActionScript canonical = canonicalizer.canonicalize(script);
+		assertEquals(script, canonical);
+		assertSame(canonical.nodes.get(2), canonical.nodes.get(3)); // Stateless nodes are shared outright.
+
+		// Nodes with state are not shared, only their values are, so modifying one leaves the other alone:
+		final CommentStatement first = (CommentStatement) canonical.nodes.get(0);
+		final CommentStatement second = (CommentStatement) canonical.nodes.get(1);
+		assertNotSame(first, second);
+		assertSame(first.comment, second.comment);
+		first.comment = "Changed";
+		assertEquals("Shared", second.comment);
+
+		final InlineScript inline = new InlineScript();
+		inline.contents = new String("return true");
+		final InlineScript otherInline = new InlineScript();
+		otherInline.contents = new String("return true");
+		assertSame(inline, canonicalizer.canonicalize(inline));
+		assertSame(inline.contents, canonicalizer.canonicalize(otherInline).contents);
+	}
+
 	private static void doFurball2FurballTest(String furballName, byte formatVersion, int dependencyCount, int assetCount) {
 		final byte[] in = assertDoesNotThrow(() -> TestUtil.readAllBytes(furballName));
 		final Furball furball = assertDoesNotThrow(() -> new FurballReader(in).readFurball());
@@ -209,6 +717,34 @@ final class FurblorbTest {
 		assertArrayEquals(in, out);
 	}
 
+	private static List<DynamicTest> doSampleFurballTest(SampleFurballTest test) {
+		return Stream.of("/Core.1.0.1.furball", "/DeepForest.1.0.0.furball")
+				.map(furballName -> DynamicTest.dynamicTest(furballName, () -> {
+					final byte[] in = TestUtil.readAllBytes(furballName);
+					test.run(in, new FurballReader(in).readFurball());
+				}))
+				.toList();
+	}
+
+	private static List<DynamicTest> doWriterVariantTest(Function<Furball, byte[]> writer) {
+		return doSampleFurballTest((in, furball) -> {
+			for (byte formatVersion : new byte[] { 20, 21 }) {
+				furball.meta.formatVersion = formatVersion;
+				assertArrayEquals(new FurballWriter().write(furball).toByteArray(), writer.apply(furball), "format " + formatVersion);
+			}
+		});
+	}
+
+	private static List<DynamicTest> doReaderVariantTest(Function<byte[], Furball> reader) {
+		return doSampleFurballTest((in, furball) -> {
+			for (byte formatVersion : new byte[] { 20, 21 }) {
+				furball.meta.formatVersion = formatVersion;
+				final byte[] data = new FurballWriter().write(furball).toByteArray();
+				assertEquals(new FurballReader(data).readFurball(), reader.apply(data), "format " + formatVersion);
+			}
+		});
+	}
+
 	private static List<DynamicTest> doProject2ProjectTest(String zip, String module) {
 		final Path project = assertDoesNotThrow(() -> TestUtil.extract(zip));
 		final MemoryExternalFileHandler in = assertDoesNotThrow(() -> TestUtil.fromZip(module, project));
@@ -287,4 +823,10 @@ final class FurblorbTest {
 				})
 				.toList();
 	}
+
+	@FunctionalInterface
+	private static interface SampleFurballTest {
+
+		void run(byte[] in, Furball furball) throws Exception;
+	}
 }
\ No newline at end of file
@@ -59,7 +59,7 @@ final class MemoryExternalFileHandler implements ExtendedExternalFileHandler {
 	}
 
 	@Override
-	public void writeExternalFile(String filename, byte[] contents) {
+	public synchronized void writeExternalFile(String filename, byte[] contents) {
 		if (read) throw new UnsupportedOperationException();
 		this.contents.put(Objects.requireNonNull(filename, "filename"), Objects.requireNonNull(contents, "contents"));
 	}